@@ -4,23 +4,38 @@ import com.escom.papelio.model.SemanticScholarPaper;
 import com.escom.papelio.model.SemanticScholarRecommendedPapers;
 import com.escom.papelio.model.SemanticScholarResponse;
 import com.escom.papelio.util.ApiRetryUtil;
+import com.escom.papelio.util.RequestCoalescer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.function.Supplier;
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class SemanticScholarApiClient {
     private final WebClient webClient;
     private final ApiRetryUtil apiRetryUtil;
+    private final SemanticScholarRateLimiter rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    // Upper bound on IDs accepted by the paper/batch endpoint
+    public static final int MAX_BATCH_SIZE = 500;
+    // Identical concurrent requests (e.g. a popular query missing the cache) share one upstream call
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer();
 
     @Value("${api.semantic-scholar.base-url:https://api.semanticscholar.org/graph/v1}")
     private String apiBaseUrl;
@@ -29,6 +44,80 @@ public class SemanticScholarApiClient {
     private String apiKey;
 
     public SemanticScholarResponse searchPapers(String query, int offset, int limit, String fields) {
+        return requestCoalescer.execute(searchKey(query, offset, limit, fields),
+                () -> execute(() -> searchPapersRequest(query, offset, limit, fields)));
+    }
+
+    /**
+     * Non-blocking variant of {@link #searchPapers}; no thread is held while waiting for the API
+     */
+    public Mono<SemanticScholarResponse> searchPapersAsync(String query, int offset, int limit, String fields) {
+        return requestCoalescer.executeAsync(searchKey(query, offset, limit, fields),
+                () -> executeAsync(searchPapersRequest(query, offset, limit, fields)));
+    }
+
+    public SemanticScholarPaper getPaperById(String id, String fields) {
+        return requestCoalescer.execute(paperKey(id, fields),
+                () -> execute(() -> getPaperByIdRequest(id, fields)));
+    }
+
+    /**
+     * Non-blocking variant of {@link #getPaperById}; no thread is held while waiting for the API
+     */
+    public Mono<SemanticScholarPaper> getPaperByIdAsync(String id, String fields) {
+        return requestCoalescer.executeAsync(paperKey(id, fields),
+                () -> executeAsync(getPaperByIdRequest(id, fields)));
+    }
+
+    /**
+     * Fetches up to {@link #MAX_BATCH_SIZE} papers in one call. The result is aligned with the
+     * requested IDs and holds null for papers that were not found
+     */
+    public List<SemanticScholarPaper> getPapersByIds(List<String> ids, String fields) {
+        return requestCoalescer.execute(papersKey(ids, fields),
+                () -> execute(() -> getPapersByIdsRequest(ids, fields)));
+    }
+
+    /**
+     * Non-blocking variant of {@link #getPapersByIds}; no thread is held while waiting for the API
+     */
+    public Mono<List<SemanticScholarPaper>> getPapersByIdsAsync(List<String> ids, String fields) {
+        return requestCoalescer.executeAsync(papersKey(ids, fields),
+                () -> executeAsync(getPapersByIdsRequest(ids, fields)));
+    }
+
+    public SemanticScholarRecommendedPapers getRecommendations(List<String> paperIds, int limit, String fields) {
+        return requestCoalescer.execute(recommendationsKey(paperIds, limit, fields),
+                () -> execute(() -> getRecommendationsRequest(paperIds, limit, fields)));
+    }
+
+    /**
+     * Non-blocking variant of {@link #getRecommendations}; no thread is held while waiting for the API
+     */
+    public Mono<SemanticScholarRecommendedPapers> getRecommendationsAsync(List<String> paperIds, int limit, String fields) {
+        return requestCoalescer.executeAsync(recommendationsKey(paperIds, limit, fields),
+                () -> executeAsync(getRecommendationsRequest(paperIds, limit, fields)));
+    }
+
+    /**
+     * Runs a blocking call through the resilience layer. Every attempt must get past the circuit breaker
+     * before it waits for a rate limit permit, so an open breaker fails fast and permits are only spent on
+     * calls that are sent. The bulkhead is entered only once the permit is held, so it bounds calls actually
+     * in flight and callers queue in the rate limiter; failed attempts are retried by ApiRetryUtil
+     */
+    private <T> T execute(Supplier<Mono<T>> request) {
+        return apiRetryUtil.executeWithRetry(circuitBreaker.decorateSupplier(() -> {
+            rateLimiter.acquire();
+            return bulkhead.executeSupplier(() -> request.get().block());
+        }));
+    }
+
+    private <T> Mono<T> executeAsync(Mono<T> request) {
+        return apiRetryUtil.withRetry(rateLimiter.limit(request.transformDeferred(BulkheadOperator.of(bulkhead)))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker)));
+    }
+
+    private Mono<SemanticScholarResponse> searchPapersRequest(String query, int offset, int limit, String fields) {
         String uri = UriComponentsBuilder.fromUriString(apiBaseUrl + "/paper/search")
                 .queryParam("query", query)
                 .queryParam("offset", offset)
@@ -38,34 +127,45 @@ public class SemanticScholarApiClient {
 
         log.debug("Calling Semantic Scholar API with URL: {}", uri);
 
-        return apiRetryUtil.executeWithRetry(() ->
-            webClient.get()
+        return webClient.get()
                 .uri(uri)
                 .headers(this::setHeaders)
                 .retrieve()
-                .bodyToMono(SemanticScholarResponse.class)
-                .block()
-        );
+                .bodyToMono(SemanticScholarResponse.class);
     }
 
-    public SemanticScholarPaper getPaperById(String id, String fields) {
+    private Mono<SemanticScholarPaper> getPaperByIdRequest(String id, String fields) {
         String uri = UriComponentsBuilder.fromUriString(apiBaseUrl + "/paper/" + id)
                 .queryParam("fields", fields)
                 .build().toUriString();
 
         log.debug("Calling Semantic Scholar API with URL: {}", uri);
 
-        return apiRetryUtil.executeWithRetry(() ->
-            webClient.get()
+        return webClient.get()
                 .uri(uri)
                 .headers(this::setHeaders)
                 .retrieve()
-                .bodyToMono(SemanticScholarPaper.class)
-                .block()
-        );
+                .bodyToMono(SemanticScholarPaper.class);
     }
 
-    public SemanticScholarRecommendedPapers getRecommendations(List<String> paperIds, int limit, String fields) {
+    private Mono<List<SemanticScholarPaper>> getPapersByIdsRequest(List<String> ids, String fields) {
+        String uri = UriComponentsBuilder.fromUriString(apiBaseUrl + "/paper/batch")
+                .queryParam("fields", fields)
+                .build().toUriString();
+
+        log.debug("Calling Semantic Scholar API for {} papers with URL: {}", ids.size(), uri);
+
+        return webClient.post()
+                .uri(uri)
+                .headers(this::setHeaders)
+                .bodyValue(Map.of("ids", ids))
+                .retrieve()
+                // Decoded as a list rather than a Flux because missing papers come back as null elements
+                .bodyToMono(new ParameterizedTypeReference<List<SemanticScholarPaper>>() {
+                });
+    }
+
+    private Mono<SemanticScholarRecommendedPapers> getRecommendationsRequest(List<String> paperIds, int limit, String fields) {
         String uri = UriComponentsBuilder.fromUriString("https://api.semanticscholar.org/recommendations/v1/papers")
                 .queryParam("limit", limit)
                 .queryParam("fields", fields)
@@ -77,15 +177,28 @@ public class SemanticScholarApiClient {
         payload.put("positivePaperIds", paperIds);
         log.debug("Payload for recommendations: {}", payload);
 
-        return apiRetryUtil.executeWithRetry(() ->
-            webClient.post()
+        return webClient.post()
                 .uri(uri)
                 .headers(this::setHeaders)
                 .bodyValue(payload)
                 .retrieve()
-                .bodyToMono(SemanticScholarRecommendedPapers.class)
-                .block()
-        );
+                .bodyToMono(SemanticScholarRecommendedPapers.class);
+    }
+
+    private static String searchKey(String query, int offset, int limit, String fields) {
+        return "search|" + query + "|" + offset + "|" + limit + "|" + fields;
+    }
+
+    private static String paperKey(String id, String fields) {
+        return "paper|" + id + "|" + fields;
+    }
+
+    private static String papersKey(List<String> ids, String fields) {
+        return "papers|" + ids + "|" + fields;
+    }
+
+    private static String recommendationsKey(List<String> paperIds, int limit, String fields) {
+        return "recommendations|" + paperIds + "|" + limit + "|" + fields;
     }
 
     private void setHeaders(HttpHeaders headers) {
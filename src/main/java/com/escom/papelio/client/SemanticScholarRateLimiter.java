@@ -0,0 +1,103 @@
+package com.escom.papelio.client;
+
+import com.escom.papelio.exception.RateLimitExceededException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shared token bucket that keeps Semantic Scholar calls under the API key quota.
+ * Each call reserves a permit up front; when the bucket is empty the caller is told how long to wait,
+ * so permits are handed out in arrival order. Calls are rejected immediately once the wait queue is
+ * full or the wait would exceed the configured maximum.
+ */
+@Component
+@Slf4j
+public class SemanticScholarRateLimiter {
+
+    private final double permitsPerSecond;
+    private final double burst;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+
+    // ReentrantLock instead of synchronized so virtual threads are not pinned while contending
+    private final ReentrantLock lock = new ReentrantLock();
+    // Negative values are permits already promised to queued callers
+    private double availablePermits;
+    private long lastRefillNanos;
+
+    public SemanticScholarRateLimiter(
+            @Value("${api.semantic-scholar.rate-limit.permits-per-second:1}") double permitsPerSecond,
+            @Value("${api.semantic-scholar.rate-limit.burst:1}") int burst,
+            @Value("${api.semantic-scholar.rate-limit.max-queue:50}") int maxQueue,
+            @Value("${api.semantic-scholar.rate-limit.max-wait:10s}") Duration maxWait) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.availablePermits = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Blocks the calling thread until a permit is available
+     *
+     * @throws RateLimitExceededException if the wait queue is full
+     */
+    public void acquire() {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for a rate limit permit", e);
+            }
+        }
+    }
+
+    /**
+     * Defers subscription to the request until a permit is available, without blocking a thread.
+     * Every resubscription (e.g. a retry) takes a new permit
+     */
+    public <T> Mono<T> limit(Mono<T> request) {
+        return Mono.defer(() -> {
+            long waitNanos = reserve();
+            return waitNanos > 0 ? Mono.delay(Duration.ofNanos(waitNanos)).then(request) : request;
+        });
+    }
+
+    /**
+     * Takes one permit and returns how long the caller must wait before using it
+     */
+    long reserve() {
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+
+            double queued = Math.max(0, Math.ceil(-availablePermits));
+            long waitNanos = availablePermits >= 1 ? 0 : (long) ((1 - availablePermits) / permitsPerSecond * 1_000_000_000L);
+
+            if (waitNanos > 0 && (queued >= maxQueue || waitNanos > maxWaitNanos)) {
+                log.warn("Semantic Scholar rate limit queue full ({} waiting), rejecting call", (int) queued);
+                throw new RateLimitExceededException("Semantic Scholar rate limit exceeded, try again later");
+            }
+
+            availablePermits -= 1;
+            return waitNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill(long now) {
+        double refilled = (now - lastRefillNanos) * permitsPerSecond / 1_000_000_000L;
+        availablePermits = Math.min(burst, availablePermits + refilled);
+        lastRefillNanos = now;
+    }
+}
@@ -1,29 +1,73 @@
 package com.escom.papelio.config;
 
+import com.escom.papelio.service.SearchBlockFetcher;
+import com.escom.papelio.service.SemanticScholarService;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.util.unit.DataSize;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
 
+/**
+ * Each cache is bounded by the approximate memory of its entries (see {@link CacheEntryWeigher})
+ * and has its own TTL, configured under app.cache.*. Statistics are recorded for every cache.
+ * <p>
+ * Article details and basic search blocks are refreshed ahead: once an entry is older than its
+ * refresh-after interval the next read still returns it immediately while a background reload goes
+ * to Semantic Scholar. If the upstream keeps failing the stale entry is served until its TTL.
+ */
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
-                "basicSearchCache",
-                "advancedSearchCache",
-                "articleDetails",
-                "recommendationsCache"
-        );
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .expireAfterWrite(30, TimeUnit.MINUTES)
-                .maximumSize(100));
+    public CacheManager cacheManager(
+            @Value("${app.cache.basic-search.max-weight:64MB}") DataSize basicSearchMaxWeight,
+            @Value("${app.cache.basic-search.ttl:1h}") Duration basicSearchTtl,
+            @Value("${app.cache.basic-search.refresh-after:10m}") Duration basicSearchRefreshAfter,
+            @Value("${app.cache.advanced-search.max-weight:16MB}") DataSize advancedSearchMaxWeight,
+            @Value("${app.cache.advanced-search.ttl:10m}") Duration advancedSearchTtl,
+            @Value("${app.cache.article-details.max-weight:64MB}") DataSize articleDetailsMaxWeight,
+            @Value("${app.cache.article-details.ttl:3d}") Duration articleDetailsTtl,
+            @Value("${app.cache.article-details.refresh-after:12h}") Duration articleDetailsRefreshAfter,
+            @Value("${app.cache.recommendations.max-weight:16MB}") DataSize recommendationsMaxWeight,
+            @Value("${app.cache.recommendations.ttl:1h}") Duration recommendationsTtl,
+            ObjectProvider<SemanticScholarService> semanticScholarService,
+            ObjectProvider<SearchBlockFetcher> searchBlockFetcher) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Backs the caches with Caffeine AsyncCache so CompletableFuture-returning @Cacheable methods work
+        cacheManager.setAsyncCacheMode(true);
+        // The services are resolved lazily: they are only needed once an entry is due for refresh
+        cacheManager.registerCustomCache("basicSearchCache", buildRefreshingCache(basicSearchMaxWeight, basicSearchTtl, basicSearchRefreshAfter,
+                new RefreshAheadCacheLoader<>(String.class, key -> searchBlockFetcher.getObject().refreshBlock(key))));
+        cacheManager.registerCustomCache("advancedSearchCache", buildCache(advancedSearchMaxWeight, advancedSearchTtl));
+        cacheManager.registerCustomCache("articleDetails", buildRefreshingCache(articleDetailsMaxWeight, articleDetailsTtl, articleDetailsRefreshAfter,
+                new RefreshAheadCacheLoader<>(String.class, id -> semanticScholarService.getObject().refreshArticle(id))));
+        cacheManager.registerCustomCache("recommendationsCache", buildCache(recommendationsMaxWeight, recommendationsTtl));
         return cacheManager;
     }
-}
\ No newline at end of file
+
+    private AsyncCache<Object, Object> buildCache(DataSize maxWeight, Duration ttl) {
+        return newBuilder(maxWeight, ttl).buildAsync();
+    }
+
+    private AsyncCache<Object, Object> buildRefreshingCache(DataSize maxWeight, Duration ttl, Duration refreshAfter,
+                                                           RefreshAheadCacheLoader<?> loader) {
+        return newBuilder(maxWeight, ttl).refreshAfterWrite(refreshAfter).buildAsync(loader);
+    }
+
+    private Caffeine<Object, Object> newBuilder(DataSize maxWeight, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maxWeight.toBytes())
+                .weigher(CacheEntryWeigher::weigh)
+                .expireAfterWrite(ttl)
+                .recordStats();
+    }
+}
@@ -0,0 +1,73 @@
+package com.escom.papelio.config;
+
+import com.escom.papelio.dto.ArticleDTO;
+import com.escom.papelio.dto.SearchBlockDTO;
+import com.escom.papelio.dto.SearchResponseDTO;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Approximates the heap footprint of cache entries in bytes, so caches can be bounded by memory
+ * rather than entry count. A block of 50 search results with abstracts weighs far more than a single article.
+ */
+final class CacheEntryWeigher {
+
+    private static final int OBJECT_OVERHEAD = 16;
+    private static final int REFERENCE_SIZE = 8;
+    // Header plus backing array; compact strings store Latin-1 text at one byte per char
+    private static final int STRING_OVERHEAD = 40;
+    private static final int ARTICLE_FIELDS = 11;
+
+    private CacheEntryWeigher() {
+    }
+
+    static int weigh(Object key, Object value) {
+        long bytes = sizeOf(key) + sizeOf(value);
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static long sizeOf(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String s) {
+            return STRING_OVERHEAD + s.length();
+        }
+        if (value instanceof ArticleDTO article) {
+            return sizeOf(article);
+        }
+        if (value instanceof SearchResponseDTO response) {
+            return OBJECT_OVERHEAD + 4L * REFERENCE_SIZE + sizeOf(response.getQuery()) + sizeOf(response.getArticles());
+        }
+        if (value instanceof SearchBlockDTO block) {
+            return OBJECT_OVERHEAD + 4L * REFERENCE_SIZE + sizeOf(block.getQuery()) + sizeOf(block.getArticles());
+        }
+        if (value instanceof Collection<?> collection) {
+            long bytes = OBJECT_OVERHEAD + (long) collection.size() * REFERENCE_SIZE;
+            for (Object element : collection) {
+                bytes += sizeOf(element);
+            }
+            return bytes;
+        }
+        if (value instanceof Optional<?> optional) {
+            return OBJECT_OVERHEAD + sizeOf(optional.orElse(null));
+        }
+        return OBJECT_OVERHEAD + REFERENCE_SIZE;
+    }
+
+    private static long sizeOf(ArticleDTO article) {
+        return OBJECT_OVERHEAD + (long) ARTICLE_FIELDS * REFERENCE_SIZE
+                + sizeOf(article.getId())
+                + sizeOf(article.getTitle())
+                + sizeOf(article.getAbstract_())
+                + sizeOf(article.getDoi())
+                + sizeOf(article.getAuthors())
+                + sizeOf(article.getJournal())
+                + sizeOf(article.getDocumentType())
+                + sizeOf(article.getLanguage())
+                + sizeOf(article.getUrl())
+                + (article.getPublicationDate() != null ? OBJECT_OVERHEAD + 8 : 0)
+                + (article.getCitationCount() != null ? OBJECT_OVERHEAD : 0);
+    }
+}
@@ -0,0 +1,15 @@
+package com.escom.papelio.config;
+
+import com.escom.papelio.service.PopularityCounterService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PopularityCounterConfig {
+
+    @Bean
+    public CommandLineRunner rebuildPopularityCounters(PopularityCounterService popularityCounterService) {
+        return args -> popularityCounterService.rebuildIfEmpty();
+    }
+}
@@ -0,0 +1,37 @@
+package com.escom.papelio.config;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Loader for caches populated by @Cacheable that only takes part in refresh-ahead. Misses complete
+ * with null so the annotated method still performs the initial load; entries past their refresh
+ * interval are reloaded in the background while the stale value keeps being served. A failed reload
+ * leaves the stale value in place until the entry expires.
+ */
+final class RefreshAheadCacheLoader<K> implements AsyncCacheLoader<Object, Object> {
+
+    private final Class<K> keyType;
+    private final Function<K, CompletableFuture<?>> reloader;
+
+    RefreshAheadCacheLoader(Class<K> keyType, Function<K, CompletableFuture<?>> reloader) {
+        this.keyType = keyType;
+        this.reloader = reloader;
+    }
+
+    @Override
+    public CompletableFuture<?> asyncLoad(Object key, Executor executor) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<?> asyncReload(Object key, Object oldValue, Executor executor) {
+        if (!keyType.isInstance(key)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Unexpected cache key " + key));
+        }
+        return reloader.apply(keyType.cast(key));
+    }
+}
@@ -0,0 +1,28 @@
+package com.escom.papelio.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Resilience4j instances guarding the Semantic Scholar API, configured under
+ * resilience4j.circuitbreaker.instances.semanticScholar and resilience4j.bulkhead.instances.semanticScholar
+ */
+@Configuration
+public class ResilienceConfig {
+
+    public static final String SEMANTIC_SCHOLAR = "semanticScholar";
+
+    @Bean
+    public CircuitBreaker semanticScholarCircuitBreaker(CircuitBreakerRegistry circuitBreakerRegistry) {
+        return circuitBreakerRegistry.circuitBreaker(SEMANTIC_SCHOLAR);
+    }
+
+    @Bean
+    public Bulkhead semanticScholarBulkhead(BulkheadRegistry bulkheadRegistry) {
+        return bulkheadRegistry.bulkhead(SEMANTIC_SCHOLAR);
+    }
+}
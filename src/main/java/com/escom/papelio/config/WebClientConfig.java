@@ -1,17 +1,72 @@
 package com.escom.papelio.config;
 
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class WebClientConfig {
 
+    /**
+     * Bounded connection pool for the Semantic Scholar API. Idle connections are kept (and their TLS
+     * sessions reused) until evicted, and callers queue for a connection only up to the pending limit
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider semanticScholarConnectionProvider(
+            @Value("${api.semantic-scholar.pool.max-connections:50}") int maxConnections,
+            @Value("${api.semantic-scholar.pool.pending-acquire-max-count:200}") int pendingAcquireMaxCount,
+            @Value("${api.semantic-scholar.pool.pending-acquire-timeout:5s}") Duration pendingAcquireTimeout,
+            @Value("${api.semantic-scholar.pool.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${api.semantic-scholar.pool.max-life-time:5m}") Duration maxLifeTime,
+            @Value("${api.semantic-scholar.pool.evict-in-background:30s}") Duration evictInBackground) {
+        return ConnectionProvider.builder("semantic-scholar")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInBackground)
+                .build();
+    }
+
+    /**
+     * The response timeout covers the wait for the response after the request is sent. The write timeout
+     * handler is added per request and removed when the connection goes back to the pool, so neither
+     * counts the time a pooled connection sits idle
+     */
     @Bean
-    public WebClient webClient() {
+    public WebClient webClient(
+            ConnectionProvider semanticScholarConnectionProvider,
+            @Value("${api.semantic-scholar.connect-timeout:5s}") Duration connectTimeout,
+            @Value("${api.semantic-scholar.response-timeout:15s}") Duration responseTimeout,
+            @Value("${api.semantic-scholar.write-timeout:10s}") Duration writeTimeout,
+            @Value("${api.semantic-scholar.http2-enabled:false}") boolean http2Enabled) {
+        HttpClient httpClient = HttpClient.create(semanticScholarConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(responseTimeout)
+                .doOnRequest((request, connection) -> connection
+                        .addHandlerLast(new WriteTimeoutHandler(writeTimeout.toMillis(), TimeUnit.MILLISECONDS)));
+
+        if (http2Enabled) {
+            // Negotiated through ALPN; falls back to HTTP/1.1 if the server does not offer h2
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+
         // Configure the WebClient with increased memory buffer to handle larger responses
         return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .exchangeStrategies(ExchangeStrategies.builder()
                         .codecs(configurer -> configurer
                                 .defaultCodecs()
@@ -19,4 +74,4 @@ public class WebClientConfig {
                         .build())
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -2,16 +2,16 @@ package com.escom.papelio.controller;
 
 import com.escom.papelio.dto.SearchRequestDTO;
 import com.escom.papelio.dto.SearchResponseDTO;
+import com.escom.papelio.security.CurrentUserResolver;
 import com.escom.papelio.service.ArticleService;
 import com.escom.papelio.service.SearchHistoryService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.Principal;
-
 @Controller
 @RequestMapping("/search")
 @RequiredArgsConstructor
@@ -19,6 +19,7 @@ public class SearchController {
 
     private final ArticleService articleService;
     private final SearchHistoryService searchHistoryService;
+    private final CurrentUserResolver currentUserResolver;
 
     @GetMapping
     public String showSearchPage(Model model) {
@@ -33,7 +34,7 @@ public class SearchController {
     }
 
     @PostMapping("/results")
-    public String performSearch(@ModelAttribute SearchRequestDTO searchRequest,
+    public String performSearch(@Valid @ModelAttribute SearchRequestDTO searchRequest,
                                 Model model,
                                 Authentication authentication) {
 
@@ -42,17 +43,19 @@ public class SearchController {
 
         // Log search history if user is authenticated
         if (authentication != null) {
-            searchHistoryService.saveSearchQuery(authentication.getName(), searchRequest.getQuery());
+            searchHistoryService.saveSearchQuery(currentUserResolver.resolveId(authentication), searchRequest.getQuery());
         }
 
         return "search/results";
     }
 
     @GetMapping("/history")
-    public String viewSearchHistory(Model model, Principal principal) {
-        if (principal != null) {
+    public String viewSearchHistory(Model model, Authentication authentication) {
+        if (authentication != null) {
+            Long userId = currentUserResolver.resolveId(authentication);
             model.addAttribute("searchHistory",
-                    searchHistoryService.getUserSearchHistory(principal.getName()));
+                    searchHistoryService.getSearchHistoryPage(userId, null, SearchHistoryService.MAX_PAGE_SIZE)
+                            .getItems());
         }
         return "search/history";
     }
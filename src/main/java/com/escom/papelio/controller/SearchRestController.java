@@ -1,16 +1,21 @@
 package com.escom.papelio.controller;
 
+import com.escom.papelio.dto.ArticleBatchRequestDTO;
 import com.escom.papelio.dto.ArticleDTO;
 import com.escom.papelio.dto.ArticleFavoriteRequestDTO;
 import com.escom.papelio.dto.RecommendationRequestDTO;
 import com.escom.papelio.dto.SearchRequestDTO;
 import com.escom.papelio.dto.SearchResponseDTO;
+import com.escom.papelio.dto.TrendingWindow;
+import com.escom.papelio.security.CurrentUserResolver;
 import com.escom.papelio.service.ArticleFavoriteService;
 import com.escom.papelio.service.ArticleService;
 import com.escom.papelio.service.ArticleViewHistoryService;
 import com.escom.papelio.service.SearchHistoryService;
 import com.escom.papelio.service.SemanticScholarService;
+import com.escom.papelio.util.DecayingTopK;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -20,6 +25,8 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/search")
@@ -32,87 +39,131 @@ public class SearchRestController {
     private final ArticleViewHistoryService articleViewHistoryService;
     private final SemanticScholarService semanticScholarService;
     private final ArticleFavoriteService articleFavoriteService;
+    private final CurrentUserResolver currentUserResolver;
 
     @PostMapping
-    public ResponseEntity<SearchResponseDTO> basicSearch(
+    public CompletableFuture<ResponseEntity<SearchResponseDTO>> basicSearch(
             @Valid @RequestBody SearchRequestDTO searchRequest,
             Authentication authentication) {
 
         log.info("Received basic search request: {}", searchRequest.getQuery());
 
-        // Perform the search
-        SearchResponseDTO response = articleService.searchArticles(searchRequest);
+        // Perform the search; the request thread is released while the API call is in flight
+        CompletableFuture<SearchResponseDTO> response = articleService.searchArticlesAsync(searchRequest);
 
-        // Log search history if user is authenticated
-        if (authentication != null) {
-            searchHistoryService.saveSearchQuery(authentication.getName(), searchRequest.getQuery());
+        if (authentication == null) {
+            return response.thenApply(ResponseEntity::ok);
         }
 
-        return ResponseEntity.ok(response);
+        // Log search history and flag the user's favorites in the results
+        Long userId = currentUserResolver.resolveId(authentication);
+        searchHistoryService.saveSearchQuery(userId, searchRequest.getQuery());
+
+        return response
+                .thenCompose(results -> articleFavoriteService.markFavoritesAsync(userId, results))
+                .thenApply(ResponseEntity::ok);
     }
 
     @GetMapping("/article/{id}")
-    public ResponseEntity<ArticleDTO> getArticleById(
-            @PathVariable String id,
-            @RequestParam String title,
+    public CompletableFuture<ResponseEntity<ArticleDTO>> getArticleById(
+            @PathVariable @Size(max = 255) String id,
+            @RequestParam @Size(max = 255) String title,
             Authentication authentication) {
         // Track article view if user is authenticated
         if (authentication != null) {
-            articleViewHistoryService.saveArticleView(authentication.getName(), id, title);
+            articleViewHistoryService.saveArticleView(currentUserResolver.resolveId(authentication), id, title);
         }
 
-        return articleService.getArticleById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        return articleService.getArticleByIdAsync(id)
+                .thenApply(article -> article != null
+                        ? ResponseEntity.ok(article)
+                        : ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Full metadata for several articles in one round trip, e.g. to hydrate favorites or view history
+     */
+    @PostMapping("/articles/batch")
+    public CompletableFuture<ResponseEntity<List<ArticleDTO>>> getArticlesByIds(
+            @Valid @RequestBody ArticleBatchRequestDTO batchRequest) {
+        log.info("Received batch article request for {} IDs", batchRequest.getIds().size());
+
+        return articleService.getArticlesByIdsAsync(batchRequest.getIds()).thenApply(ResponseEntity::ok);
     }
 
+    /**
+     * One page of the user's search history; pass the returned nextCursor to get the following page
+     */
     @GetMapping("/history")
-    public ResponseEntity<?> getSearchHistory(Authentication authentication) {
+    public ResponseEntity<?> getSearchHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
         if (authentication == null) {
             return ResponseEntity.status(401).build();
         }
-        return ResponseEntity.ok(searchHistoryService.getUserSearchHistory(authentication.getName()));
+        return ResponseEntity.ok(searchHistoryService.getSearchHistoryPage(currentUserResolver.resolveId(authentication), cursor, size));
     }
 
+    /**
+     * One page of the user's article view history; pass the returned nextCursor to get the following page
+     */
     @GetMapping("/article-history")
-    public ResponseEntity<?> getArticleViewHistory(Authentication authentication) {
+    public ResponseEntity<?> getArticleViewHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
         if (authentication == null) {
             return ResponseEntity.status(401).build();
         }
-        return ResponseEntity.ok(articleViewHistoryService.getUserArticleViewHistory(authentication.getName()));
+        return ResponseEntity.ok(articleViewHistoryService.getArticleViewHistoryPage(currentUserResolver.resolveId(authentication), cursor, size));
     }
 
+    /**
+     * All-time most viewed articles, or the articles trending in the given window (hour, day or week)
+     */
     @GetMapping("/popular-articles")
-    public ResponseEntity<SearchResponseDTO> getPopularArticles() {
-        return ResponseEntity.ok(articleViewHistoryService.getMostViewedArticlesAsDTO());
+    public ResponseEntity<SearchResponseDTO> getPopularArticles(@RequestParam(required = false) String window) {
+        if (window == null) {
+            return ResponseEntity.ok(articleViewHistoryService.getMostViewedArticlesAsDTO());
+        }
+        return ResponseEntity.ok(articleViewHistoryService.getTrendingArticlesAsDTO(TrendingWindow.from(window)));
+    }
+
+    @GetMapping("/trending-queries")
+    public ResponseEntity<List<DecayingTopK.Entry<String>>> getTrendingQueries(
+            @RequestParam(defaultValue = "day") String window) {
+        return ResponseEntity.ok(searchHistoryService.getTrendingQueries(TrendingWindow.from(window), 10));
     }
 
     @GetMapping("/recommendations")
-    public ResponseEntity<SearchResponseDTO> getRecommendations(Authentication authentication) {
+    public CompletableFuture<ResponseEntity<SearchResponseDTO>> getRecommendations(Authentication authentication) {
         if (authentication == null) {
-            return ResponseEntity.status(401).build();
+            return CompletableFuture.completedFuture(ResponseEntity.status(401).build());
         }
         
-        String userEmail = authentication.getName();
-        log.info("Generating recommendations for user: {}", userEmail);
+        Long userId = currentUserResolver.resolveId(authentication);
+        log.info("Generating recommendations for user: {}", userId);
         
         // Get article IDs the user has viewed (up to 20)
-        List<String> viewedArticleIds = articleViewHistoryService.getUserViewedArticleIds(userEmail, 20);
+        List<String> viewedArticleIds = articleViewHistoryService.getUserViewedArticleIds(userId, 20);
         
         if (viewedArticleIds.isEmpty()) {
-            log.info("No view history found for user {}, unable to generate recommendations", userEmail);
-            return ResponseEntity.ok(new SearchResponseDTO(List.of(), 0, 0, 0, "recommendations"));
+            log.info("No view history found for user {}, unable to generate recommendations", userId);
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.ok(new SearchResponseDTO(List.of(), 0, 0, 0, "recommendations")));
         }
         
         // Create a request with the viewed article IDs
         RecommendationRequestDTO request = new RecommendationRequestDTO(viewedArticleIds, 20);
         
         // Get recommendations based on viewed articles
-        SearchResponseDTO recommendations = semanticScholarService.getRecommendations(request);
-        log.info("Generated {} recommendations for user {}", 
-            recommendations.getArticles().size(), userEmail);
-        
-        return ResponseEntity.ok(recommendations);
+        return semanticScholarService.getRecommendationsAsync(request)
+                .thenApply(recommendations -> {
+                    log.info("Generated {} recommendations for user {}",
+                        recommendations.getArticles().size(), userId);
+                    return ResponseEntity.ok(recommendations);
+                });
     }
 
     @PostMapping("/favorite")
@@ -124,7 +175,7 @@ public class SearchRestController {
         }
         
         boolean added = articleFavoriteService.saveArticleFavorite(
-            authentication.getName(), 
+            currentUserResolver.resolveId(authentication), 
             favoriteRequest.getArticleId(), 
             favoriteRequest.getTitle()
         );
@@ -147,7 +198,7 @@ public class SearchRestController {
         }
         
         boolean removed = articleFavoriteService.removeArticleFavorite(
-            authentication.getName(), 
+            currentUserResolver.resolveId(authentication), 
             articleId
         );
         
@@ -166,12 +217,31 @@ public class SearchRestController {
         }
         
         SearchResponseDTO favorites = articleFavoriteService.getUserFavoritesAsDTO(
-            authentication.getName()
+            currentUserResolver.resolveId(authentication)
         );
         
         return ResponseEntity.ok(favorites);
     }
     
+    /**
+     * Favorite status for many articles in one request; returns the subset that is favorited
+     */
+    @PostMapping("/favorite/check")
+    public ResponseEntity<Map<String, Set<String>>> checkFavorites(
+            @Valid @RequestBody ArticleBatchRequestDTO checkRequest,
+            Authentication authentication) {
+        if (authentication == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        Set<String> favoriteIds = articleFavoriteService.getFavoriteArticleIds(
+            currentUserResolver.resolveId(authentication),
+            checkRequest.getIds()
+        );
+
+        return ResponseEntity.ok(Map.of("favoriteIds", favoriteIds));
+    }
+
     @GetMapping("/favorite/check/{articleId}")
     public ResponseEntity<Map<String, Boolean>> checkIfFavorite(
             @PathVariable String articleId,
@@ -181,7 +251,7 @@ public class SearchRestController {
         }
         
         boolean isFavorite = articleFavoriteService.isArticleFavorite(
-            authentication.getName(), 
+            currentUserResolver.resolveId(authentication), 
             articleId
         );
         
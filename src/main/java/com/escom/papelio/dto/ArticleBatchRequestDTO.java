@@ -0,0 +1,19 @@
+package com.escom.papelio.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArticleBatchRequestDTO {
+
+    @NotEmpty(message = "At least one article ID is required")
+    @Size(max = 500, message = "At most 500 article IDs can be requested at once")
+    private List<String> ids;
+}
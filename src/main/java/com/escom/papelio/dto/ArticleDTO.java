@@ -1,5 +1,6 @@
 package com.escom.papelio.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,6 +11,8 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+// Fields left out by a summary projection are omitted from the JSON rather than sent as null
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ArticleDTO {
     private String id;
     private String title;
@@ -22,4 +25,6 @@ public class ArticleDTO {
     private String language;
     private Integer citationCount;
     private String url;
+    // Set only on search results returned to an authenticated user
+    private Boolean favorite;
 }
\ No newline at end of file
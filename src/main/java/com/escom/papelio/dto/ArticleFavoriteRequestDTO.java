@@ -1,6 +1,7 @@
 package com.escom.papelio.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,8 +12,10 @@ import lombok.NoArgsConstructor;
 public class ArticleFavoriteRequestDTO {
     
     @NotBlank(message = "Article ID is required")
+    @Size(max = 255, message = "Article ID must be at most 255 characters")
     private String articleId;
     
     @NotBlank(message = "Title is required")
+    @Size(max = 255, message = "Title must be at most 255 characters")
     private String title;
 }
@@ -0,0 +1,17 @@
+package com.escom.papelio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArticleViewEntryDTO {
+    private Long id;
+    private String articleId;
+    private String title;
+    private LocalDateTime viewDate;
+}
@@ -0,0 +1,31 @@
+package com.escom.papelio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a user's history, newest first. {@code nextCursor} is null on the last page
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryPageDTO<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    /**
+     * Builds a page from rows fetched with a limit of {@code pageSize + 1}; the extra row only signals
+     * that another page exists
+     */
+    public static <T> HistoryPageDTO<T> of(List<T> rows, int pageSize, Function<T, String> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new HistoryPageDTO<>(rows, null);
+        }
+        List<T> items = rows.subList(0, pageSize);
+        return new HistoryPageDTO<>(List.copyOf(items), cursorOf.apply(items.get(pageSize - 1)));
+    }
+}
@@ -0,0 +1,20 @@
+package com.escom.papelio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A block of consecutive search results starting at an aligned offset, as fetched from the API
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchBlockDTO {
+    private String query;
+    private int offset;
+    private List<ArticleDTO> articles;
+    private long totalResults;
+}
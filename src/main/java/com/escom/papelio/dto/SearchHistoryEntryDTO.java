@@ -0,0 +1,16 @@
+package com.escom.papelio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHistoryEntryDTO {
+    private Long id;
+    private String searchQuery;
+    private LocalDateTime searchDate;
+}
@@ -0,0 +1,25 @@
+package com.escom.papelio.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Which paper fields a search requests from the API. Summary leaves out abstracts, which dominate
+ * the payload and are only needed once a paper is opened.
+ */
+public enum SearchProjection {
+    @JsonProperty("summary")
+    SUMMARY("title,authors,venue,year,citationCount,url,externalIds"),
+
+    @JsonProperty("full")
+    FULL("title,abstract,authors,venue,year,citationCount,url,externalIds");
+
+    private final String fields;
+
+    SearchProjection(String fields) {
+        this.fields = fields;
+    }
+
+    public String getFields() {
+        return fields;
+    }
+}
@@ -1,6 +1,9 @@
 package com.escom.papelio.dto;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,6 +15,7 @@ import java.time.LocalDate;
 @AllArgsConstructor
 public class SearchRequestDTO {
     @NotBlank(message = "Query cannot be empty")
+    @Size(max = 255, message = "Query must be at most 255 characters")
     private String query;
 
     // Advanced search filters
@@ -20,6 +24,11 @@ public class SearchRequestDTO {
     private String journal;
     private String documentType;
     private String language;
+    @Min(value = 0, message = "Page cannot be negative")
     private Integer page = 0;
+    // At most one upstream block per page
+    @Min(value = 1, message = "Size must be at least 1")
+    @Max(value = 50, message = "Size must be at most 50")
     private Integer size = 10;
+    private SearchProjection projection = SearchProjection.FULL;
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.escom.papelio.dto;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Time window for trending articles and queries; events lose half their weight after one window
+ */
+public enum TrendingWindow {
+    HOUR(Duration.ofHours(1)),
+    DAY(Duration.ofDays(1)),
+    WEEK(Duration.ofDays(7));
+
+    private final Duration halfLife;
+
+    TrendingWindow(Duration halfLife) {
+        this.halfLife = halfLife;
+    }
+
+    public Duration getHalfLife() {
+        return halfLife;
+    }
+
+    /**
+     * Parses a window name such as {@code hour}, ignoring case
+     */
+    public static TrendingWindow from(String name) {
+        return valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
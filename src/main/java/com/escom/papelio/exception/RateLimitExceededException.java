@@ -0,0 +1,14 @@
+package com.escom.papelio.exception;
+
+/**
+ * Thrown when a call to an external API is rejected locally because too many
+ * requests are already waiting for the client-side rate limiter
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -4,34 +4,41 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "article_favorites", uniqueConstraints = {
-    @UniqueConstraint(columnNames = {"userEmail", "articleId"})
+    @UniqueConstraint(name = "uk_article_favorites_user_article", columnNames = {"userId", "articleId"})
 })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
 public class ArticleFavorite {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "article_favorites_seq")
+    @SequenceGenerator(name = "article_favorites_seq", sequenceName = "article_favorites_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String title;
 
     @Column(nullable = false)
-    private String userEmail;
+    private Long userId;
 
     @Column(nullable = false)
     private String articleId;
     
-    @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime favoriteDate;
+
+    /**
+     * Sets the favorite date when it is missing
+     */
+    @PrePersist
+    void defaultFavoriteDate() {
+        if (favoriteDate == null) {
+            favoriteDate = LocalDateTime.now();
+        }
+    }
 }
@@ -0,0 +1,30 @@
+package com.escom.papelio.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running view count per article, kept up to date as article views are saved.
+ */
+@Entity
+@Table(name = "article_view_counts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArticleViewCount {
+    @Id
+    private String articleId;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false)
+    private long viewCount;
+
+    @Column(nullable = false)
+    private LocalDateTime lastViewedAt;
+}
@@ -4,8 +4,6 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 
@@ -14,22 +12,31 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
 public class ArticleViewHistory {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "article_view_history_seq")
+    @SequenceGenerator(name = "article_view_history_seq", sequenceName = "article_view_history_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String title;
 
     @Column(nullable = false)
-    private String userEmail;
+    private Long userId;
 
     @Column(nullable = false)
     private String articleId;
 
-    @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime viewDate;
+
+    /**
+     * Stamps the view time unless the caller already did, e.g. for imported views
+     */
+    @PrePersist
+    void defaultViewDate() {
+        if (viewDate == null) {
+            viewDate = LocalDateTime.now();
+        }
+    }
 }
@@ -4,8 +4,6 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 
@@ -14,19 +12,28 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
 public class SearchHistory {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "search_history_seq")
+    @SequenceGenerator(name = "search_history_seq", sequenceName = "search_history_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
-    private String userEmail;
+    private Long userId;
 
     @Column(nullable = false)
     private String searchQuery;
 
-    @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime searchDate;
-}
\ No newline at end of file
+
+    /**
+     * Keeps a search date supplied by the caller and falls back to now
+     */
+    @PrePersist
+    void defaultSearchDate() {
+        if (searchDate == null) {
+            searchDate = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.escom.papelio.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running count per search query, kept up to date as searches are saved.
+ */
+@Entity
+@Table(name = "search_query_counts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchQueryCount {
+    @Id
+    private String searchQuery;
+
+    @Column(nullable = false)
+    private long searchCount;
+
+    @Column(nullable = false)
+    private LocalDateTime lastSearchedAt;
+}
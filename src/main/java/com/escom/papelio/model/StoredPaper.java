@@ -0,0 +1,53 @@
+package com.escom.papelio.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Persistent copy of a Semantic Scholar paper, keyed by its paper ID
+ */
+@Entity
+@Table(name = "papers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredPaper {
+    @Id
+    private String id;
+
+    @Column(columnDefinition = "TEXT")
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String abstractText;
+
+    private String doi;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<String> authors;
+
+    @Column(columnDefinition = "TEXT")
+    private String journal;
+
+    private LocalDate publicationDate;
+
+    private String documentType;
+
+    private String language;
+
+    private Integer citationCount;
+
+    @Column(columnDefinition = "TEXT")
+    private String url;
+
+    @Column(nullable = false)
+    private LocalDateTime fetchedAt;
+}
@@ -2,19 +2,46 @@ package com.escom.papelio.repository;
 
 import com.escom.papelio.model.ArticleFavorite;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ArticleFavoriteRepository extends JpaRepository<ArticleFavorite, Long> {
     
-    List<ArticleFavorite> findByUserEmailOrderByFavoriteDateDesc(String userEmail);
+    List<ArticleFavorite> findByUserIdOrderByFavoriteDateDesc(Long userId);
     
-    Optional<ArticleFavorite> findByUserEmailAndArticleId(String userEmail, String articleId);
+    Optional<ArticleFavorite> findByUserIdAndArticleId(Long userId, String articleId);
     
-    boolean existsByUserEmailAndArticleId(String userEmail, String articleId);
+    boolean existsByUserIdAndArticleId(Long userId, String articleId);
+
+    @Query("SELECT f.articleId FROM ArticleFavorite f WHERE f.userId = :userId")
+    List<String> findArticleIdsByUserId(@Param("userId") Long userId);
     
-    void deleteByUserEmailAndArticleId(String userEmail, String articleId);
+    void deleteByUserIdAndArticleId(Long userId, String articleId);
+
+    /**
+     * Inserts the favorite unless the user already has it. Only the (user_id, article_id) conflict is
+     * ignored; any other failure, such as an unknown user, still raises an exception
+     * @return 1 if inserted, 0 if it already existed
+     */
+    @Modifying
+    @Query(value = "INSERT INTO article_favorites (id, user_id, article_id, title, favorite_date) " +
+            "VALUES (nextval('article_favorites_seq'), :userId, :articleId, :title, :favoriteDate) " +
+            "ON CONFLICT (user_id, article_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("articleId") String articleId,
+                       @Param("title") String title, @Param("favoriteDate") LocalDateTime favoriteDate);
+
+    /**
+     * Deletes in a single statement, unlike the derived delete which loads the entity first
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM ArticleFavorite f WHERE f.userId = :userId AND f.articleId = :articleId")
+    int deleteFavorite(@Param("userId") Long userId, @Param("articleId") String articleId);
 }
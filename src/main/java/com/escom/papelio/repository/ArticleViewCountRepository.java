@@ -0,0 +1,37 @@
+package com.escom.papelio.repository;
+
+import com.escom.papelio.model.ArticleViewCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArticleViewCountRepository extends JpaRepository<ArticleViewCount, String> {
+
+    @Query("SELECT c.title, c.articleId, c.viewCount FROM ArticleViewCount c ORDER BY c.viewCount DESC LIMIT 10")
+    List<Object[]> findMostViewedArticles();
+
+    @Modifying
+    @Query(value = "INSERT INTO article_view_counts (article_id, title, view_count, last_viewed_at) " +
+            "VALUES (:articleId, :title, :delta, :viewedAt) " +
+            "ON CONFLICT (article_id) DO UPDATE SET " +
+            "view_count = article_view_counts.view_count + EXCLUDED.view_count, " +
+            "title = EXCLUDED.title, " +
+            "last_viewed_at = GREATEST(article_view_counts.last_viewed_at, EXCLUDED.last_viewed_at)",
+            nativeQuery = true)
+    void increment(@Param("articleId") String articleId, @Param("title") String title,
+                   @Param("delta") long delta, @Param("viewedAt") LocalDateTime viewedAt);
+
+    @Modifying
+    @Query(value = "INSERT INTO article_view_counts (article_id, title, view_count, last_viewed_at) " +
+            "SELECT article_id, MAX(title), COUNT(*), MAX(view_date) FROM article_view_history GROUP BY article_id " +
+            "ON CONFLICT (article_id) DO UPDATE SET view_count = EXCLUDED.view_count, " +
+            "title = EXCLUDED.title, last_viewed_at = EXCLUDED.last_viewed_at",
+            nativeQuery = true)
+    int rebuildFromHistory();
+}
@@ -1,17 +1,31 @@
 package com.escom.papelio.repository;
 
+import com.escom.papelio.dto.ArticleViewEntryDTO;
 import com.escom.papelio.model.ArticleViewHistory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ArticleViewHistoryRepository extends JpaRepository<ArticleViewHistory, Long> {
-    List<ArticleViewHistory> findByUserEmailOrderByViewDateDesc(String userEmail);
 
-    @Query("SELECT avh.title, avh.articleId, COUNT(avh) as count FROM ArticleViewHistory avh " +
-            "GROUP BY avh.title, avh.articleId ORDER BY count DESC LIMIT 10")
-    List<Object[]> findMostViewedArticles();
+    @Query("SELECT new com.escom.papelio.dto.ArticleViewEntryDTO(avh.id, avh.articleId, avh.title, avh.viewDate) " +
+            "FROM ArticleViewHistory avh WHERE avh.userId = :userId ORDER BY avh.viewDate DESC, avh.id DESC")
+    List<ArticleViewEntryDTO> findPage(@Param("userId") Long userId, Limit limit);
+
+    @Query("SELECT new com.escom.papelio.dto.ArticleViewEntryDTO(avh.id, avh.articleId, avh.title, avh.viewDate) " +
+            "FROM ArticleViewHistory avh WHERE avh.userId = :userId AND avh.viewDate <= :date " +
+            "AND (avh.viewDate < :date OR avh.id < :id) ORDER BY avh.viewDate DESC, avh.id DESC")
+    List<ArticleViewEntryDTO> findPageAfter(@Param("userId") Long userId, @Param("date") LocalDateTime date,
+                                            @Param("id") Long id, Limit limit);
+
+    @Query("SELECT avh.articleId FROM ArticleViewHistory avh WHERE avh.userId = :userId " +
+            "AND avh.viewDate >= :since GROUP BY avh.articleId ORDER BY MAX(avh.viewDate) DESC")
+    List<String> findRecentDistinctArticleIds(@Param("userId") Long userId,
+                                              @Param("since") LocalDateTime since, Limit limit);
 }
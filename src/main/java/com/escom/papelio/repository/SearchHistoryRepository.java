@@ -1,17 +1,26 @@
 package com.escom.papelio.repository;
 
+import com.escom.papelio.dto.SearchHistoryEntryDTO;
 import com.escom.papelio.model.SearchHistory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface SearchHistoryRepository extends JpaRepository<SearchHistory, Long> {
-    List<SearchHistory> findByUserEmailOrderBySearchDateDesc(String userEmail);
 
-    @Query("SELECT sh.searchQuery, COUNT(sh) as count FROM SearchHistory sh " +
-            "GROUP BY sh.searchQuery ORDER BY count DESC LIMIT 10")
-    List<Object[]> findTopSearchQueries();
+    @Query("SELECT new com.escom.papelio.dto.SearchHistoryEntryDTO(sh.id, sh.searchQuery, sh.searchDate) " +
+            "FROM SearchHistory sh WHERE sh.userId = :userId ORDER BY sh.searchDate DESC, sh.id DESC")
+    List<SearchHistoryEntryDTO> findPage(@Param("userId") Long userId, Limit limit);
+
+    @Query("SELECT new com.escom.papelio.dto.SearchHistoryEntryDTO(sh.id, sh.searchQuery, sh.searchDate) " +
+            "FROM SearchHistory sh WHERE sh.userId = :userId AND sh.searchDate <= :date " +
+            "AND (sh.searchDate < :date OR sh.id < :id) ORDER BY sh.searchDate DESC, sh.id DESC")
+    List<SearchHistoryEntryDTO> findPageAfter(@Param("userId") Long userId, @Param("date") LocalDateTime date,
+                                              @Param("id") Long id, Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.escom.papelio.repository;
+
+import com.escom.papelio.model.SearchQueryCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SearchQueryCountRepository extends JpaRepository<SearchQueryCount, String> {
+
+    @Query("SELECT c.searchQuery, c.searchCount FROM SearchQueryCount c ORDER BY c.searchCount DESC LIMIT 10")
+    List<Object[]> findTopSearchQueries();
+
+    @Modifying
+    @Query(value = "INSERT INTO search_query_counts (search_query, search_count, last_searched_at) " +
+            "VALUES (:searchQuery, :delta, :searchedAt) " +
+            "ON CONFLICT (search_query) DO UPDATE SET " +
+            "search_count = search_query_counts.search_count + EXCLUDED.search_count, " +
+            "last_searched_at = GREATEST(search_query_counts.last_searched_at, EXCLUDED.last_searched_at)",
+            nativeQuery = true)
+    void increment(@Param("searchQuery") String searchQuery, @Param("delta") long delta,
+                   @Param("searchedAt") LocalDateTime searchedAt);
+
+    @Modifying
+    @Query(value = "INSERT INTO search_query_counts (search_query, search_count, last_searched_at) " +
+            "SELECT search_query, COUNT(*), MAX(search_date) FROM search_history GROUP BY search_query " +
+            "ON CONFLICT (search_query) DO UPDATE SET search_count = EXCLUDED.search_count, " +
+            "last_searched_at = EXCLUDED.last_searched_at",
+            nativeQuery = true)
+    int rebuildFromHistory();
+}
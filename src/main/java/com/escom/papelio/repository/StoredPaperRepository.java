@@ -0,0 +1,18 @@
+package com.escom.papelio.repository;
+
+import com.escom.papelio.model.StoredPaper;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoredPaperRepository extends JpaRepository<StoredPaper, String>, StoredPaperRepositoryCustom {
+
+    Optional<StoredPaper> findByIdAndFetchedAtAfter(String id, LocalDateTime fetchedAfter);
+
+    List<StoredPaper> findByIdInAndFetchedAtAfter(Collection<String> ids, LocalDateTime fetchedAfter);
+}
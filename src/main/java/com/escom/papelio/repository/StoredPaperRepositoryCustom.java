@@ -0,0 +1,14 @@
+package com.escom.papelio.repository;
+
+import com.escom.papelio.model.StoredPaper;
+
+import java.util.Collection;
+
+public interface StoredPaperRepositoryCustom {
+
+    /**
+     * Inserts the papers, overwriting stored rows with the same ID, in one JDBC batch and without
+     * reading them first
+     */
+    void upsertAll(Collection<StoredPaper> papers);
+}
@@ -0,0 +1,63 @@
+package com.escom.papelio.repository;
+
+import com.escom.papelio.model.StoredPaper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.UncheckedIOException;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Native upsert for {@link StoredPaper}. Saving an entity with an assigned ID through JPA merges it,
+ * which reads every paper before writing it
+ */
+@RequiredArgsConstructor
+public class StoredPaperRepositoryCustomImpl implements StoredPaperRepositoryCustom {
+
+    private static final String UPSERT = "INSERT INTO papers (id, title, abstract_text, doi, authors, journal, " +
+            "publication_date, document_type, language, citation_count, url, fetched_at) " +
+            "VALUES (?, ?, ?, ?, CAST(? AS jsonb), ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (id) DO UPDATE SET title = EXCLUDED.title, abstract_text = EXCLUDED.abstract_text, " +
+            "doi = EXCLUDED.doi, authors = EXCLUDED.authors, journal = EXCLUDED.journal, " +
+            "publication_date = EXCLUDED.publication_date, document_type = EXCLUDED.document_type, " +
+            "language = EXCLUDED.language, citation_count = EXCLUDED.citation_count, url = EXCLUDED.url, " +
+            "fetched_at = EXCLUDED.fetched_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void upsertAll(Collection<StoredPaper> papers) {
+        // One row per ID: a batch rewritten into a multi-row insert cannot update the same row twice
+        Map<String, StoredPaper> byId = new LinkedHashMap<>();
+        papers.forEach(paper -> byId.put(paper.getId(), paper));
+
+        jdbcTemplate.batchUpdate(UPSERT, byId.values(), byId.size(), (statement, paper) -> {
+            statement.setString(1, paper.getId());
+            statement.setString(2, paper.getTitle());
+            statement.setString(3, paper.getAbstractText());
+            statement.setString(4, paper.getDoi());
+            statement.setString(5, paper.getAuthors() == null ? null : toJson(paper));
+            statement.setString(6, paper.getJournal());
+            statement.setObject(7, paper.getPublicationDate(), Types.DATE);
+            statement.setString(8, paper.getDocumentType());
+            statement.setString(9, paper.getLanguage());
+            statement.setObject(10, paper.getCitationCount(), Types.INTEGER);
+            statement.setString(11, paper.getUrl());
+            statement.setObject(12, paper.getFetchedAt(), Types.TIMESTAMP);
+        });
+    }
+
+    private String toJson(StoredPaper paper) {
+        try {
+            return objectMapper.writeValueAsString(paper.getAuthors());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Failed to serialize authors of paper " + paper.getId(), e);
+        }
+    }
+}
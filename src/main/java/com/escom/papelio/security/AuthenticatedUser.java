@@ -0,0 +1,26 @@
+package com.escom.papelio.security;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Principal stored in the security context; carries the user's ID so requests don't look it up by email
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class AuthenticatedUser extends User {
+
+    // Stored in the HTTP session, so keep it stable across deploys
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    public AuthenticatedUser(Long id, String email, String password, Collection<? extends GrantedAuthority> authorities) {
+        super(email, password, authorities);
+        this.id = id;
+    }
+}
@@ -0,0 +1,29 @@
+package com.escom.papelio.security;
+
+import com.escom.papelio.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the authenticated principal to the user's numeric ID
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserResolver {
+
+    private final UserRepository userRepository;
+
+    /**
+     * Uses the ID carried by the principal when available, otherwise looks it up by email
+     */
+    public Long resolveId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        String email = authentication.getName();
+        return userRepository.findIdByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User no encontrado: " + email));
+    }
+}
@@ -2,6 +2,7 @@ package com.escom.papelio.security;
 
 import com.escom.papelio.model.User;
 import com.escom.papelio.repository.UserRepository;
+import com.escom.papelio.service.UserAccountCache;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -16,13 +17,19 @@ import java.util.Collections;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserAccountCache userAccountCache;
 
+    /**
+     * Builds a fresh principal on every call, since Spring Security erases its credentials after login,
+     * but reads the account through the cache so repeated and remember-me logins skip the database
+     */
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        User user = userAccountCache.get(email, userRepository::findByEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("User no encontrado: " + email));
 
-        return new org.springframework.security.core.userdetails.User(
+        return new AuthenticatedUser(
+                user.getId(),
                 user.getEmail(),
                 user.getPassword(),
                 Collections.singletonList(new SimpleGrantedAuthority(user.getRole()))
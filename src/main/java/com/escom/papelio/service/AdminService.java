@@ -16,6 +16,7 @@ public class AdminService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserAccountCache userAccountCache;
 
     public List<UserDTO> listarUsuarios() {
         return userRepository.findAll().stream()
@@ -53,6 +54,7 @@ public class AdminService {
         }
 
         User saved = userRepository.save(user);
+        userAccountCache.invalidate(saved.getEmail());
         return mapToDTO(saved);
     }
 
@@ -65,6 +67,7 @@ public class AdminService {
             throw new RuntimeException("El email ya está registrado");
         }
 
+        String previousEmail = user.getEmail();
         user.setEmail(userDTO.getEmail());
         user.setName(userDTO.getName());
 
@@ -79,6 +82,10 @@ public class AdminService {
         }
 
         User saved = userRepository.save(user);
+        userAccountCache.invalidate(previousEmail);
+        if (!previousEmail.equals(saved.getEmail())) {
+            userAccountCache.invalidate(saved.getEmail());
+        }
         return mapToDTO(saved);
     }
 
@@ -87,6 +94,7 @@ public class AdminService {
             throw new RuntimeException("User no encontrado");
         }
         userRepository.deleteById(id);
+        userAccountCache.invalidateById(id);
     }
 
     private UserDTO mapToDTO(User user) {
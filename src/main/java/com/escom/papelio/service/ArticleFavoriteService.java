@@ -8,8 +8,14 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,24 +24,26 @@ import java.util.stream.Collectors;
 public class ArticleFavoriteService {
     
     private final ArticleFavoriteRepository articleFavoriteRepository;
+    private final ArticleHydrationService articleHydrationService;
+    private final UserFavoritesCache userFavoritesCache;
     
     /**
-     * Saves an article as favorite for a user
+     * Saves an article as favorite for a user. Duplicates are skipped by the insert itself
+     * (ON CONFLICT DO NOTHING) rather than by checking first; any other database error propagates and
+     * leaves the cached favorites untouched
      * @return true if added, false if it already existed
      */
-    public boolean saveArticleFavorite(String userEmail, String articleId, String title) {
-        if (articleFavoriteRepository.existsByUserEmailAndArticleId(userEmail, articleId)) {
-            log.info("Article {} is already a favorite for user {}", articleId, userEmail);
+    @Transactional
+    public boolean saveArticleFavorite(Long userId, String articleId, String title) {
+        int inserted = articleFavoriteRepository.insertIfAbsent(userId, articleId, title, LocalDateTime.now());
+        userFavoritesCache.add(userId, articleId);
+
+        if (inserted == 0) {
+            log.info("Article {} is already a favorite for user {}", articleId, userId);
             return false;
         }
-        
-        ArticleFavorite favorite = new ArticleFavorite();
-        favorite.setUserEmail(userEmail);
-        favorite.setArticleId(articleId);
-        favorite.setTitle(title);
-        
-        articleFavoriteRepository.save(favorite);
-        log.info("Added article {} to favorites for user {}", articleId, userEmail);
+
+        log.info("Added article {} to favorites for user {}", articleId, userId);
         return true;
     }
     
@@ -44,29 +52,73 @@ public class ArticleFavoriteService {
      * @return true if removed, false if it wasn't found
      */
     @Transactional
-    public boolean removeArticleFavorite(String userEmail, String articleId) {
-        if (!articleFavoriteRepository.existsByUserEmailAndArticleId(userEmail, articleId)) {
-            log.info("Article {} is not in favorites for user {}", articleId, userEmail);
+    public boolean removeArticleFavorite(Long userId, String articleId) {
+        int deleted = articleFavoriteRepository.deleteFavorite(userId, articleId);
+        userFavoritesCache.remove(userId, articleId);
+
+        if (deleted == 0) {
+            log.info("Article {} is not in favorites for user {}", articleId, userId);
             return false;
         }
-        
-        articleFavoriteRepository.deleteByUserEmailAndArticleId(userEmail, articleId);
-        log.info("Removed article {} from favorites for user {}", articleId, userEmail);
+
+        log.info("Removed article {} from favorites for user {}", articleId, userId);
         return true;
     }
     
     /**
-     * Checks if an article is in the user's favorites
+     * Checks if an article is in the user's favorites, from the in-memory set
      */
-    public boolean isArticleFavorite(String userEmail, String articleId) {
-        return articleFavoriteRepository.existsByUserEmailAndArticleId(userEmail, articleId);
+    public boolean isArticleFavorite(Long userId, String articleId) {
+        return favoriteIdsOf(userId).contains(articleId);
     }
     
     /**
-     * Returns all favorite articles for a user as a SearchResponseDTO
+     * Returns which of the given articles are in the user's favorites, from the in-memory set
+     */
+    public Set<String> getFavoriteArticleIds(Long userId, Collection<String> articleIds) {
+        if (articleIds.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> favoriteIds = favoriteIdsOf(userId);
+        return articleIds.stream().filter(favoriteIds::contains).collect(Collectors.toSet());
+    }
+
+    /**
+     * Returns a copy of the search results with each article's favorite flag set for the user.
+     * Articles are copied because the originals are shared with the search cache
+     */
+    public SearchResponseDTO markFavorites(Long userId, SearchResponseDTO results) {
+        Set<String> favoriteIds = getFavoriteArticleIds(userId,
+                results.getArticles().stream().map(ArticleDTO::getId).collect(Collectors.toSet()));
+
+        List<ArticleDTO> articles = results.getArticles().stream()
+                .map(article -> new ArticleDTO(article.getId(), article.getTitle(), article.getAbstract_(), article.getDoi(),
+                        article.getAuthors(), article.getJournal(), article.getPublicationDate(), article.getDocumentType(),
+                        article.getLanguage(), article.getCitationCount(), article.getUrl(), favoriteIds.contains(article.getId())))
+                .collect(Collectors.toList());
+
+        return new SearchResponseDTO(articles, results.getTotalResults(), results.getCurrentPage(), results.getTotalPages(), results.getQuery());
+    }
+
+    /**
+     * Non-blocking variant of {@link #markFavorites}. The query runs on a worker thread rather than on
+     * the thread that completed the search, which may be an HTTP client event loop
+     */
+    public CompletableFuture<SearchResponseDTO> markFavoritesAsync(Long userId, SearchResponseDTO results) {
+        return Mono.fromCallable(() -> markFavorites(userId, results))
+                .subscribeOn(Schedulers.boundedElastic())
+                .toFuture();
+    }
+
+    private Set<String> favoriteIdsOf(Long userId) {
+        return userFavoritesCache.get(userId, articleFavoriteRepository::findArticleIdsByUserId);
+    }
+
+    /**
+     * Returns all favorite articles for a user as a SearchResponseDTO, hydrated with full metadata
      */
-    public SearchResponseDTO getUserFavoritesAsDTO(String userEmail) {
-        List<ArticleFavorite> favorites = articleFavoriteRepository.findByUserEmailOrderByFavoriteDateDesc(userEmail);
+    public SearchResponseDTO getUserFavoritesAsDTO(Long userId) {
+        List<ArticleFavorite> favorites = articleFavoriteRepository.findByUserIdOrderByFavoriteDateDesc(userId);
         
         List<ArticleDTO> articleDTOs = favorites.stream()
             .map(favorite -> {
@@ -77,8 +129,9 @@ public class ArticleFavoriteService {
                 return dto;
             })
             .collect(Collectors.toList());
+        articleDTOs = articleHydrationService.hydrate(articleDTOs);
         
-        log.info("Retrieved {} favorites for user {}", articleDTOs.size(), userEmail);
+        log.info("Retrieved {} favorites for user {}", articleDTOs.size(), userId);
         return new SearchResponseDTO(articleDTOs, articleDTOs.size(), 1, 1, "favorites");
     }
 }
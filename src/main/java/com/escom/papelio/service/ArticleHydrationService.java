@@ -0,0 +1,44 @@
+package com.escom.papelio.service;
+
+import com.escom.papelio.dto.ArticleDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Enriches title-only article stubs (favorites, popular articles) with full metadata in bulk. Lookups
+ * go through the articleDetails cache and the paper store first, with the misses fetched in one
+ * batched API call; stubs that cannot be hydrated are returned unchanged.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ArticleHydrationService {
+
+    private final ArticleService articleService;
+
+    public List<ArticleDTO> hydrate(List<ArticleDTO> stubs) {
+        if (stubs.isEmpty()) {
+            return stubs;
+        }
+
+        Map<String, ArticleDTO> details;
+        try {
+            details = articleService.getArticlesByIds(stubs.stream().map(ArticleDTO::getId).toList()).stream()
+                    .collect(Collectors.toMap(ArticleDTO::getId, Function.identity(), (first, second) -> first));
+        } catch (Exception e) {
+            log.warn("Could not hydrate {} articles: {}", stubs.size(), e.getMessage());
+            return stubs;
+        }
+
+        log.debug("Hydrated {} of {} articles", details.size(), stubs.size());
+        return stubs.stream()
+                .map(stub -> details.getOrDefault(stub.getId(), stub))
+                .collect(Collectors.toList());
+    }
+}
@@ -5,10 +5,19 @@ import com.escom.papelio.dto.RecommendationRequestDTO;
 import com.escom.papelio.dto.SearchRequestDTO;
 import com.escom.papelio.dto.SearchResponseDTO;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface ArticleService {
     SearchResponseDTO searchArticles(SearchRequestDTO searchRequest);
     Optional<ArticleDTO> getArticleById(String id);
     SearchResponseDTO getRecommendations(RecommendationRequestDTO request);
+    List<ArticleDTO> getArticlesByIds(List<String> ids);
+
+    // Non-blocking variants, completed once the upstream API answers
+    CompletableFuture<SearchResponseDTO> searchArticlesAsync(SearchRequestDTO searchRequest);
+    CompletableFuture<ArticleDTO> getArticleByIdAsync(String id);
+    CompletableFuture<SearchResponseDTO> getRecommendationsAsync(RecommendationRequestDTO request);
+    CompletableFuture<List<ArticleDTO>> getArticlesByIdsAsync(List<String> ids);
 }
@@ -3,13 +3,21 @@ package com.escom.papelio.service;
 import com.escom.papelio.model.ArticleViewHistory;
 import com.escom.papelio.repository.ArticleViewHistoryRepository;
 import com.escom.papelio.dto.ArticleDTO;
+import com.escom.papelio.dto.ArticleViewEntryDTO;
+import com.escom.papelio.dto.HistoryPageDTO;
 import com.escom.papelio.dto.SearchResponseDTO;
+import com.escom.papelio.dto.TrendingWindow;
+import com.escom.papelio.util.HistoryCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,31 +25,73 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ArticleViewHistoryService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Recommendation seeds only come from recent views, so the query reads just the newest monthly partitions
+    private static final Duration SEED_LOOKBACK = Duration.ofDays(90);
+
     private final ArticleViewHistoryRepository articleViewHistoryRepository;
+    private final ArticleHydrationService articleHydrationService;
+    private final HistoryWriter historyWriter;
+    private final PopularityCounterService popularityCounterService;
+    private final TrendingService trendingService;
+    private final RecentViewsCache recentViewsCache;
 
     /**
-     * Save a user's article view to history
-     * @param userEmail the user's email
+     * Save a user's article view to history. The entry is written in the background by {@link HistoryWriter}
+     * @param userId the user's id
      * @param articleId the article ID
      */
-    public void saveArticleView(String userEmail, String articleId, String title) {
+    public void saveArticleView(Long userId, String articleId, String title) {
         ArticleViewHistory history = new ArticleViewHistory();
-        history.setUserEmail(userEmail);
+        history.setUserId(userId);
         history.setArticleId(articleId);
         history.setViewDate(LocalDateTime.now());
         history.setTitle(title);
 
-        articleViewHistoryRepository.save(history);
-        log.info("Saved article view history for user {}: article {}", userEmail, articleId);
+        historyWriter.enqueue(history);
+        trendingService.recordView(articleId, title, history.getViewDate());
+        recentViewsCache.recordView(userId, articleId);
+        log.debug("Queued article view history for user {}: article {}", userId, articleId);
     }
 
     /**
-     * Get article view history for a specific user
-     * @param userEmail the user's email
-     * @return list of article view history entries
+     * Save many article views in one transaction, e.g. for imports. The inserts are sent in JDBC batches
+     * @param entries the entries to save
+     * @return the saved entries
      */
-    public List<ArticleViewHistory> getUserArticleViewHistory(String userEmail) {
-        return articleViewHistoryRepository.findByUserEmailOrderByViewDateDesc(userEmail);
+    @Transactional
+    public List<ArticleViewHistory> saveArticleViews(List<ArticleViewHistory> entries) {
+        List<ArticleViewHistory> saved = articleViewHistoryRepository.saveAll(entries);
+        popularityCounterService.recordViews(saved);
+        saved.forEach(entry -> trendingService.recordView(entry.getArticleId(), entry.getTitle(), entry.getViewDate()));
+        // Imported views may be older than the cached ones, so reload instead of merging
+        saved.stream().map(ArticleViewHistory::getUserId).distinct().forEach(recentViewsCache::invalidate);
+        log.info("Saved {} article view history entries", saved.size());
+        return saved;
+    }
+
+    /**
+     * Get one page of a user's article view history, newest first
+     * @param userId the user's id
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param size page size, capped at {@value #MAX_PAGE_SIZE}
+     * @return the page of article view history entries
+     */
+    public HistoryPageDTO<ArticleViewEntryDTO> getArticleViewHistoryPage(Long userId, String cursor, int size) {
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<ArticleViewEntryDTO> rows;
+        if (cursor == null) {
+            rows = articleViewHistoryRepository.findPage(userId, limit);
+        } else {
+            HistoryCursor position = HistoryCursor.decode(cursor);
+            rows = articleViewHistoryRepository.findPageAfter(userId, position.date(), position.id(), limit);
+        }
+
+        return HistoryPageDTO.of(rows, pageSize,
+                entry -> new HistoryCursor(entry.getViewDate(), entry.getId()).encode());
     }
 
     /**
@@ -49,15 +99,15 @@ public class ArticleViewHistoryService {
      * @return list of most viewed articles with counts
      */
     public List<Object[]> getMostViewedArticles() {
-        return articleViewHistoryRepository.findMostViewedArticles();
+        return popularityCounterService.getMostViewedArticles();
     }
 
     /**
-     * Get most viewed articles formatted as a SearchResponseDTO
+     * Get most viewed articles formatted as a SearchResponseDTO, hydrated with full metadata
      * @return SearchResponseDTO containing the most viewed articles
      */
     public SearchResponseDTO getMostViewedArticlesAsDTO() {
-        List<Object[]> rawResults = articleViewHistoryRepository.findMostViewedArticles();
+        List<Object[]> rawResults = popularityCounterService.getMostViewedArticles();
         
         List<ArticleDTO> articles = rawResults.stream()
                 .map(result -> {
@@ -67,22 +117,30 @@ public class ArticleViewHistoryService {
                     return article;
                 })
                 .collect(Collectors.toList());
+        articles = articleHydrationService.hydrate(articles);
         
         return new SearchResponseDTO(articles, articles.size(), 1, 1, "popular-articles");
     }
 
+    /**
+     * Get the articles trending within a time window, answered from memory and hydrated with full metadata
+     * @param window the trending window
+     * @return SearchResponseDTO containing the trending articles
+     */
+    public SearchResponseDTO getTrendingArticlesAsDTO(TrendingWindow window) {
+        List<ArticleDTO> articles = articleHydrationService.hydrate(trendingService.getTrendingArticles(window, 10));
+        return new SearchResponseDTO(articles, articles.size(), 1, 1, "trending-" + window.name().toLowerCase(Locale.ROOT));
+    }
+
     /**
      * Get the IDs of articles viewed by a user, limited to the most recent ones
-     * @param userEmail the user's email
+     * @param userId the user's id
      * @param limit maximum number of article IDs to return
      * @return list of article IDs
      */
-    public List<String> getUserViewedArticleIds(String userEmail, int limit) {
-        return articleViewHistoryRepository.findByUserEmailOrderByViewDateDesc(userEmail)
-                .stream()
-                .map(ArticleViewHistory::getArticleId)
-                .distinct()
-                .limit(limit)
-                .collect(Collectors.toList());
+    public List<String> getUserViewedArticleIds(Long userId, int limit) {
+        LocalDateTime since = LocalDateTime.now().minus(SEED_LOOKBACK);
+        return recentViewsCache.get(userId, limit,
+                n -> articleViewHistoryRepository.findRecentDistinctArticleIds(userId, since, Limit.of(n)));
     }
 }
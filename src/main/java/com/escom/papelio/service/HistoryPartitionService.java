@@ -0,0 +1,267 @@
+package com.escom.papelio.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSetMetaData;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Maintains the monthly partitions of the history tables (see the V3 migration). Partitions are created
+ * a few months ahead at startup and nightly, moving any rows for that month out of the default partition,
+ * and partitions older than the retention period are optionally archived to gzipped CSV files and then
+ * dropped. Expired rows in the default partition are archived and deleted the same way. Dropping history
+ * does not change the popularity counters, which keep all-time counts.
+ */
+@Service
+@Slf4j
+public class HistoryPartitionService {
+
+    // History table and the date column it is partitioned by
+    static final Map<String, String> HISTORY_TABLES = Map.of(
+            "search_history", "search_date",
+            "article_view_history", "view_date");
+
+    private static final Pattern PARTITION_MONTH = Pattern.compile("_y(\\d{4})m(\\d{2})$");
+    private static final int ARCHIVE_FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate repeatableReadTemplate;
+    private final int retentionMonths;
+    private final int monthsAhead;
+    private final boolean archive;
+    private final Path archiveDirectory;
+    private final Clock clock;
+
+    public HistoryPartitionService(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.history.retention.months:12}") int retentionMonths,
+                                   @Value("${app.history.partitions.months-ahead:3}") int monthsAhead,
+                                   @Value("${app.history.retention.archive:true}") boolean archive,
+                                   @Value("${app.history.retention.archive-dir:archive/history}") Path archiveDirectory) {
+        this(jdbcTemplate, transactionManager, retentionMonths, monthsAhead, archive, archiveDirectory,
+                Clock.systemDefaultZone());
+    }
+
+    HistoryPartitionService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            int retentionMonths, int monthsAhead, boolean archive, Path archiveDirectory,
+                            Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.repeatableReadTemplate = new TransactionTemplate(transactionManager);
+        this.repeatableReadTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.retentionMonths = retentionMonths;
+        this.monthsAhead = monthsAhead;
+        this.archive = archive;
+        this.archiveDirectory = archiveDirectory;
+        this.clock = clock;
+    }
+
+    /**
+     * Creates upcoming partitions and archives and drops expired ones for every history table
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.history.partitions.cron:0 30 3 * * *}")
+    public void maintainPartitions() {
+        YearMonth current = YearMonth.now(clock);
+        YearMonth oldestKept = current.minusMonths(retentionMonths - 1L);
+
+        HISTORY_TABLES.forEach((table, dateColumn) -> {
+            List<String> partitions = listPartitions(table);
+            for (YearMonth month = current; !month.isAfter(current.plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+                if (!partitions.contains(partitionName(table, month))) {
+                    createPartition(table, dateColumn, month);
+                }
+            }
+
+            for (String partition : partitions) {
+                partitionMonth(partition)
+                        .filter(month -> month.isBefore(oldestKept))
+                        .ifPresent(month -> expirePartition(table, partition));
+            }
+            expireDefaultRows(table, dateColumn, oldestKept);
+        });
+    }
+
+    /**
+     * Creates the month's partition as a plain table, moves that month's rows out of the default partition
+     * into it and attaches it. Attaching fails while the default partition still holds rows in the range
+     */
+    private void createPartition(String table, String dateColumn, YearMonth month) {
+        String partition = partitionName(table, month);
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        try {
+            Integer moved = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE " + table + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+                int rows = jdbcTemplate.update("WITH moved AS (DELETE FROM " + defaultPartition(table) +
+                        " WHERE " + dateColumn + " >= ? AND " + dateColumn + " < ? RETURNING *) " +
+                        "INSERT INTO " + partition + " SELECT * FROM moved", from.atStartOfDay(), to.atStartOfDay());
+                jdbcTemplate.execute("ALTER TABLE " + table + " ATTACH PARTITION " + partition +
+                        " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+                return rows;
+            });
+            log.info("Created partition {}, moved {} rows from the default partition", partition, moved);
+        } catch (DataAccessException e) {
+            log.error("Failed to create partition {}, new rows for {} go to the default partition: {}",
+                    partition, month, e.getMessage(), e);
+        }
+    }
+
+    private List<String> listPartitions(String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = ? ORDER BY c.relname",
+                String.class, table);
+    }
+
+    private void expirePartition(String table, String partition) {
+        try {
+            if (archive) {
+                Path file = archivePartition(partition);
+                log.info("Archived partition {} to {}", partition, file);
+            }
+            jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            log.info("Dropped expired partition {}", partition);
+        } catch (DataAccessException | UncheckedIOException e) {
+            log.error("Failed to expire partition {}, keeping it: {}", partition, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Archives and deletes rows in the default partition that are older than the retention period.
+     * Both run in one repeatable-read transaction, so rows inserted meanwhile are neither archived nor deleted
+     */
+    private void expireDefaultRows(String table, String dateColumn, YearMonth oldestKept) {
+        String defaultPartition = defaultPartition(table);
+        LocalDateTime cutoff = oldestKept.atDay(1).atStartOfDay();
+        String expiredRows = " FROM " + defaultPartition + " WHERE " + dateColumn + " < ?";
+        try {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1" + expiredRows + ")",
+                    Boolean.class, cutoff))) {
+                return;
+            }
+            Integer deleted = repeatableReadTemplate.execute(status -> {
+                if (archive) {
+                    Path file = archiveRows(defaultPartition + "_before_" + oldestKept + "_" + clock.millis(),
+                            "SELECT *" + expiredRows, cutoff);
+                    log.info("Archived expired rows of {} to {}", defaultPartition, file);
+                }
+                return jdbcTemplate.update("DELETE" + expiredRows, cutoff);
+            });
+            log.info("Deleted {} expired rows from {}", deleted, defaultPartition);
+        } catch (DataAccessException | UncheckedIOException e) {
+            log.error("Failed to expire rows of {}, keeping them: {}", defaultPartition, e.getMessage(), e);
+        }
+    }
+
+    Path archivePartition(String partition) {
+        return archiveRows(partition, "SELECT * FROM " + partition);
+    }
+
+    /**
+     * Streams the rows of a query into {@code <archive-dir>/<name>.csv.gz}; the file only appears once complete
+     */
+    Path archiveRows(String name, String sql, Object... args) {
+        Path file = archiveDirectory.resolve(name + ".csv.gz");
+        Path partial = archiveDirectory.resolve(name + ".csv.gz.partial");
+        try {
+            Files.createDirectories(archiveDirectory);
+            try (Writer writer = new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(partial)), StandardCharsets.UTF_8)) {
+                // The PostgreSQL driver only streams with a fetch size inside a transaction
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(sql);
+                    new ArgumentPreparedStatementSetter(args).setValues(statement);
+                    statement.setFetchSize(ARCHIVE_FETCH_SIZE);
+                    return statement;
+                }, (ResultSetExtractor<Void>) rs -> {
+                    ResultSetMetaData metaData = rs.getMetaData();
+                    int columns = metaData.getColumnCount();
+                    List<String> values = new ArrayList<>(columns);
+                    for (int i = 1; i <= columns; i++) {
+                        values.add(metaData.getColumnName(i));
+                    }
+                    writeCsvLine(writer, values);
+                    while (rs.next()) {
+                        values.clear();
+                        for (int i = 1; i <= columns; i++) {
+                            values.add(rs.getString(i));
+                        }
+                        writeCsvLine(writer, values);
+                    }
+                    return null;
+                }));
+            }
+            return Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to archive " + name, e);
+        }
+    }
+
+    private static String defaultPartition(String table) {
+        return table + "_default";
+    }
+
+    static String partitionName(String table, YearMonth month) {
+        return String.format("%s_y%04dm%02d", table, month.getYear(), month.getMonthValue());
+    }
+
+    static Optional<YearMonth> partitionMonth(String partition) {
+        Matcher matcher = PARTITION_MONTH.matcher(partition);
+        if (!matcher.find()) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+    }
+
+    private static void writeCsvLine(Writer writer, List<String> values) {
+        try {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                String value = values.get(i);
+                if (value != null) {
+                    writer.write('"' + value.replace("\"", "\"\"") + '"');
+                }
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.escom.papelio.service;
+
+import com.escom.papelio.model.ArticleViewHistory;
+import com.escom.papelio.model.SearchHistory;
+import com.escom.papelio.repository.ArticleViewHistoryRepository;
+import com.escom.papelio.repository.SearchHistoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind for search and article-view history. Events are queued in memory and a background
+ * thread saves them in batches, one transaction per batch that also updates the popularity counters, so
+ * request threads never wait on an insert.
+ * When the queue stays full for longer than the enqueue timeout the caller writes the event itself,
+ * which slows producers down to the database's pace instead of dropping history. Queued events are
+ * flushed on shutdown. When disabled, every event is written synchronously in the caller's transaction.
+ * A batch that fails is retried one event at a time, so a single bad row only loses itself.
+ */
+@Service
+@Slf4j
+public class HistoryWriter {
+
+    private final SearchHistoryRepository searchHistoryRepository;
+    private final ArticleViewHistoryRepository articleViewHistoryRepository;
+    private final PopularityCounterService popularityCounterService;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Object> queue;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration enqueueTimeout;
+    private final Duration shutdownTimeout;
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public HistoryWriter(SearchHistoryRepository searchHistoryRepository,
+                         ArticleViewHistoryRepository articleViewHistoryRepository,
+                         PopularityCounterService popularityCounterService,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${app.history.write-behind.enabled:true}") boolean enabled,
+                         @Value("${app.history.write-behind.queue-capacity:10000}") int queueCapacity,
+                         @Value("${app.history.write-behind.batch-size:100}") int batchSize,
+                         @Value("${app.history.write-behind.flush-interval:1s}") Duration flushInterval,
+                         @Value("${app.history.write-behind.enqueue-timeout:100ms}") Duration enqueueTimeout,
+                         @Value("${app.history.write-behind.shutdown-timeout:10s}") Duration shutdownTimeout) {
+        this.searchHistoryRepository = searchHistoryRepository;
+        this.articleViewHistoryRepository = articleViewHistoryRepository;
+        this.popularityCounterService = popularityCounterService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.enqueueTimeout = enqueueTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("History write-behind is disabled, history is written synchronously");
+            return;
+        }
+        running = true;
+        writerThread = Thread.ofPlatform().name("history-writer").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            writerThread.join(shutdownTimeout.toMillis());
+            if (writerThread.isAlive()) {
+                log.warn("History writer did not finish within {}", shutdownTimeout);
+            }
+        }
+
+        // Events queued while the writer was exiting
+        List<Object> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        flush(remaining);
+    }
+
+    public void enqueue(SearchHistory history) {
+        submit(history);
+    }
+
+    public void enqueue(ArticleViewHistory history) {
+        submit(history);
+    }
+
+    private void submit(Object event) {
+        if (running) {
+            try {
+                if (queue.offer(event, enqueueTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+                log.warn("History queue is full, writing event synchronously");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush(List.of(event));
+    }
+
+    private void run() {
+        List<Object> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Object first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Number of history events that could not be saved, even on their own, since startup
+     */
+    public long getDroppedEventCount() {
+        return droppedEvents.get();
+    }
+
+    // Package-private for tests
+    void flush(List<Object> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        try {
+            save(events);
+        } catch (Exception e) {
+            if (events.size() == 1) {
+                drop(events.get(0), e);
+                return;
+            }
+            log.warn("Failed to save a batch of {} history entries, retrying them one by one: {}",
+                    events.size(), e.getMessage());
+            for (Object event : events) {
+                try {
+                    // IDs assigned during the rolled-back batch would turn the retry into a merge
+                    clearId(event);
+                    save(List.of(event));
+                } catch (Exception eventFailure) {
+                    drop(event, eventFailure);
+                }
+            }
+        }
+    }
+
+    private void clearId(Object event) {
+        if (event instanceof SearchHistory search) {
+            search.setId(null);
+        } else if (event instanceof ArticleViewHistory view) {
+            view.setId(null);
+        }
+    }
+
+    private void drop(Object event, Exception cause) {
+        long dropped = droppedEvents.incrementAndGet();
+        log.error("Dropped history entry {} ({} dropped so far): {}", event, dropped, cause.getMessage(), cause);
+    }
+
+    private void save(List<Object> events) {
+        List<SearchHistory> searches = new ArrayList<>();
+        List<ArticleViewHistory> views = new ArrayList<>();
+        for (Object event : events) {
+            if (event instanceof SearchHistory search) {
+                searches.add(search);
+            } else if (event instanceof ArticleViewHistory view) {
+                views.add(view);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!searches.isEmpty()) {
+                searchHistoryRepository.saveAll(searches);
+                popularityCounterService.recordSearches(searches);
+            }
+            if (!views.isEmpty()) {
+                articleViewHistoryRepository.saveAll(views);
+                popularityCounterService.recordViews(views);
+            }
+        });
+        log.debug("Saved {} search and {} article view history entries", searches.size(), views.size());
+    }
+}
@@ -0,0 +1,130 @@
+package com.escom.papelio.service;
+
+import com.escom.papelio.dto.ArticleDTO;
+import com.escom.papelio.model.StoredPaper;
+import com.escom.papelio.repository.StoredPaperRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Database-backed second level below the articleDetails cache, so article details survive restarts.
+ * Entries younger than the freshness window are served without calling Semantic Scholar; older ones
+ * are only used as a fallback when the API is unavailable. Storage errors are logged and treated as
+ * misses so they never fail an article lookup.
+ */
+@Service
+@Slf4j
+public class PaperStoreService {
+
+    private final StoredPaperRepository storedPaperRepository;
+    private final Duration freshness;
+
+    public PaperStoreService(StoredPaperRepository storedPaperRepository,
+                             @Value("${app.paper-store.freshness:7d}") Duration freshness) {
+        this.storedPaperRepository = storedPaperRepository;
+        this.freshness = freshness;
+    }
+
+    /**
+     * Returns the stored article if it was fetched within the freshness window
+     */
+    public Optional<ArticleDTO> findFresh(String id) {
+        try {
+            return storedPaperRepository.findByIdAndFetchedAtAfter(id, LocalDateTime.now().minus(freshness))
+                    .map(PaperStoreService::toArticleDTO);
+        } catch (DataAccessException e) {
+            log.warn("Could not read paper {} from store: {}", id, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the stored article regardless of its age
+     */
+    public Optional<ArticleDTO> find(String id) {
+        try {
+            return storedPaperRepository.findById(id).map(PaperStoreService::toArticleDTO);
+        } catch (DataAccessException e) {
+            log.warn("Could not read paper {} from store: {}", id, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Bulk variant of {@link #findFresh(String)}, keyed by article ID
+     */
+    public Map<String, ArticleDTO> findFresh(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return toArticleMap(storedPaperRepository.findByIdInAndFetchedAtAfter(ids, LocalDateTime.now().minus(freshness)));
+        } catch (DataAccessException e) {
+            log.warn("Could not read {} papers from store: {}", ids.size(), e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Bulk variant of {@link #find(String)}, keyed by article ID
+     */
+    public Map<String, ArticleDTO> find(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return toArticleMap(storedPaperRepository.findAllById(ids));
+        } catch (DataAccessException e) {
+            log.warn("Could not read {} papers from store: {}", ids.size(), e.getMessage());
+            return Map.of();
+        }
+    }
+
+    public void save(ArticleDTO article) {
+        if (article == null || article.getId() == null) {
+            return;
+        }
+        try {
+            storedPaperRepository.upsertAll(List.of(toStoredPaper(article)));
+        } catch (DataAccessException e) {
+            log.warn("Could not store paper {}: {}", article.getId(), e.getMessage());
+        }
+    }
+
+    public void saveAll(Collection<ArticleDTO> articles) {
+        if (articles.isEmpty()) {
+            return;
+        }
+        try {
+            storedPaperRepository.upsertAll(articles.stream().map(PaperStoreService::toStoredPaper).toList());
+        } catch (DataAccessException e) {
+            log.warn("Could not store {} papers: {}", articles.size(), e.getMessage());
+        }
+    }
+
+    private static Map<String, ArticleDTO> toArticleMap(List<StoredPaper> papers) {
+        return papers.stream().collect(Collectors.toMap(StoredPaper::getId, PaperStoreService::toArticleDTO));
+    }
+
+    private static StoredPaper toStoredPaper(ArticleDTO article) {
+        return new StoredPaper(article.getId(), article.getTitle(), article.getAbstract_(), article.getDoi(),
+                article.getAuthors(), article.getJournal(), article.getPublicationDate(), article.getDocumentType(),
+                article.getLanguage(), article.getCitationCount(), article.getUrl(), LocalDateTime.now());
+    }
+
+    private static ArticleDTO toArticleDTO(StoredPaper paper) {
+        return new ArticleDTO(paper.getId(), paper.getTitle(), paper.getAbstractText(), paper.getDoi(),
+                paper.getAuthors(), paper.getJournal(), paper.getPublicationDate(), paper.getDocumentType(),
+                paper.getLanguage(), paper.getCitationCount(), paper.getUrl(), null);
+    }
+}
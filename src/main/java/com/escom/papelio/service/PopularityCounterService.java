@@ -0,0 +1,109 @@
+package com.escom.papelio.service;
+
+import com.escom.papelio.model.ArticleViewHistory;
+import com.escom.papelio.model.SearchHistory;
+import com.escom.papelio.repository.ArticleViewCountRepository;
+import com.escom.papelio.repository.SearchQueryCountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the article view and search query counters behind the popular articles and top queries lists,
+ * so those lists are read from small indexed tables instead of grouping the whole history.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PopularityCounterService {
+
+    private final ArticleViewCountRepository articleViewCountRepository;
+    private final SearchQueryCountRepository searchQueryCountRepository;
+
+    /**
+     * Add saved article views to the counters, one upsert per distinct article.
+     * Must run in the transaction that saves the views
+     * @param views the saved views
+     */
+    public void recordViews(Collection<ArticleViewHistory> views) {
+        Map<String, Increment> increments = new LinkedHashMap<>();
+        for (ArticleViewHistory view : views) {
+            increments.computeIfAbsent(view.getArticleId(), id -> new Increment())
+                    .add(view.getTitle(), view.getViewDate());
+        }
+        increments.forEach((articleId, increment) ->
+                articleViewCountRepository.increment(articleId, increment.title, increment.count, increment.lastAt));
+    }
+
+    /**
+     * Add saved searches to the counters, one upsert per distinct query.
+     * Must run in the transaction that saves the searches
+     * @param searches the saved searches
+     */
+    public void recordSearches(Collection<SearchHistory> searches) {
+        Map<String, Increment> increments = new LinkedHashMap<>();
+        for (SearchHistory search : searches) {
+            increments.computeIfAbsent(search.getSearchQuery(), query -> new Increment())
+                    .add(null, search.getSearchDate());
+        }
+        increments.forEach((query, increment) ->
+                searchQueryCountRepository.increment(query, increment.count, increment.lastAt));
+    }
+
+    /**
+     * Get the ten most viewed articles
+     * @return rows of title, article ID and view count
+     */
+    public List<Object[]> getMostViewedArticles() {
+        return articleViewCountRepository.findMostViewedArticles();
+    }
+
+    /**
+     * Get the ten most searched queries
+     * @return rows of query and search count
+     */
+    public List<Object[]> getTopSearchQueries() {
+        return searchQueryCountRepository.findTopSearchQueries();
+    }
+
+    /**
+     * Fill the counters from the history tables when they are empty, e.g. on the first start after upgrading
+     */
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (articleViewCountRepository.count() == 0) {
+            int articles = articleViewCountRepository.rebuildFromHistory();
+            log.info("Rebuilt view counters for {} articles from history", articles);
+        }
+        if (searchQueryCountRepository.count() == 0) {
+            int queries = searchQueryCountRepository.rebuildFromHistory();
+            log.info("Rebuilt search counters for {} queries from history", queries);
+        }
+    }
+
+    private static final class Increment {
+        private String title;
+        private long count;
+        private LocalDateTime lastAt;
+
+        void add(String title, LocalDateTime at) {
+            if (at == null) {
+                at = LocalDateTime.now();
+            }
+            count++;
+            if (lastAt == null || !at.isBefore(lastAt)) {
+                lastAt = at;
+                if (title != null) {
+                    this.title = title;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.escom.papelio.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * In-memory list of each user's most recently viewed distinct article IDs, used as recommendation seeds.
+ * Every view is recorded, even before the user's list has been loaded, and merged in front of what the
+ * database returns on load. The list therefore includes views that are still queued for writing.
+ */
+@Component
+public class RecentViewsCache {
+
+    // Views kept for a user whose list has not been loaded yet
+    static final int MAX_PENDING_VIEWS = 100;
+
+    private final Cache<Long, RecentViews> recentViewsByUser;
+
+    public RecentViewsCache(@Value("${app.recent-views.cache.max-users:10000}") long maxUsers,
+                            @Value("${app.recent-views.cache.expire-after-write:30m}") Duration expireAfterWrite) {
+        this.recentViewsByUser = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * Returns up to {@code limit} article IDs, most recent first, loading them with the given function
+     * when nothing or too short a list is cached
+     */
+    public List<String> get(Long userId, int limit, Function<Integer, List<String>> loader) {
+        RecentViews cached = recentViewsByUser.getIfPresent(userId);
+        if (cached == null || !cached.loaded() || cached.limit() < limit) {
+            List<String> stored = loader.apply(limit);
+            // Views recorded while loading are in the current entry, so merge into it rather than replace it
+            cached = recentViewsByUser.asMap().compute(userId, (key, current) -> {
+                if (current == null) {
+                    return new RecentViews(distinct(stored, List.of(), limit), limit, true);
+                }
+                int merged = current.loaded() ? Math.max(limit, current.limit()) : limit;
+                return new RecentViews(distinct(current.articleIds(), stored, merged), merged, true);
+            });
+        }
+        List<String> ids = cached.articleIds();
+        return ids.size() > limit ? ids.subList(0, limit) : ids;
+    }
+
+    public void recordView(Long userId, String articleId) {
+        recentViewsByUser.asMap().compute(userId, (key, recent) -> {
+            if (recent == null) {
+                return new RecentViews(List.of(articleId), MAX_PENDING_VIEWS, false);
+            }
+            return new RecentViews(distinct(List.of(articleId), recent.articleIds(), recent.limit()),
+                    recent.limit(), recent.loaded());
+        });
+    }
+
+    public void invalidate(Long userId) {
+        recentViewsByUser.invalidate(userId);
+    }
+
+    /**
+     * The newer IDs followed by the older ones, without duplicates and capped at {@code limit}
+     */
+    private static List<String> distinct(List<String> newer, List<String> older, int limit) {
+        Set<String> ids = new LinkedHashSet<>(newer);
+        ids.addAll(older);
+        return ids.stream().limit(limit).toList();
+    }
+
+    /**
+     * @param loaded false while the list only holds views recorded since the entry was created
+     */
+    private record RecentViews(List<String> articleIds, int limit, boolean loaded) {
+    }
+}
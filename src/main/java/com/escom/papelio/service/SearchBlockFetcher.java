@@ -0,0 +1,96 @@
+package com.escom.papelio.service;
+
+import com.escom.papelio.client.SemanticScholarApiClient;
+import com.escom.papelio.dto.ArticleDTO;
+import com.escom.papelio.dto.SearchBlockDTO;
+import com.escom.papelio.dto.SearchProjection;
+import com.escom.papelio.mapper.SemanticScholarMapper;
+import com.escom.papelio.model.SemanticScholarResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Fetches search results in fixed blocks aligned to {@link #BLOCK_SIZE}, so every page that falls in
+ * the same block is served from a single upstream call and a single cache entry. Blocks are cached
+ * per projection, so summary and full results never mix. Errors are propagated, which keeps failed
+ * fetches out of the cache.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchBlockFetcher {
+
+    public static final int BLOCK_SIZE = 50;
+    // The search endpoint does not page beyond the first 1000 results
+    public static final int MAX_RESULTS = 1000;
+
+    private final SemanticScholarApiClient apiClient;
+    private final SemanticScholarMapper mapper;
+
+    @Cacheable(value = "basicSearchCache", key = "#projection.name() + '_' + #offset + '_' + #query", unless = "#result.articles.isEmpty()")
+    public SearchBlockDTO fetchBlock(String query, int offset, SearchProjection projection) {
+        log.info("Fetching {} search block for query '{}' at offset {}", projection, query, offset);
+
+        return toBlock(apiClient.searchPapers(query, offset, limit(offset), projection.getFields()), query, offset);
+    }
+
+    /**
+     * Non-blocking variant of {@link #fetchBlock}, sharing its cache entries
+     */
+    @Cacheable(value = "basicSearchCache", key = "#projection.name() + '_' + #offset + '_' + #query", unless = "#result.articles.isEmpty()")
+    public CompletableFuture<SearchBlockDTO> fetchBlockAsync(String query, int offset, SearchProjection projection) {
+        log.info("Fetching {} search block asynchronously for query '{}' at offset {}", projection, query, offset);
+
+        return blockRequest(query, offset, projection).toFuture();
+    }
+
+    /**
+     * Reloads a basicSearchCache entry for refresh-ahead, failing on an empty block so the cache keeps
+     * serving the stale entry
+     */
+    public CompletableFuture<SearchBlockDTO> refreshBlock(String cacheKey) {
+        // Keys are projection_offset_query; the query comes last so it may itself contain underscores
+        String[] parts = cacheKey.split("_", 3);
+        SearchProjection projection = SearchProjection.valueOf(parts[0]);
+        int offset = Integer.parseInt(parts[1]);
+        String query = parts[2];
+        log.debug("Refreshing cached search block '{}'", cacheKey);
+
+        return blockRequest(query, offset, projection)
+                .filter(block -> !block.getArticles().isEmpty())
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("No results while refreshing search block " + cacheKey)))
+                .toFuture();
+    }
+
+    private Mono<SearchBlockDTO> blockRequest(String query, int offset, SearchProjection projection) {
+        return apiClient.searchPapersAsync(query, offset, limit(offset), projection.getFields())
+                .map(response -> toBlock(response, query, offset))
+                .switchIfEmpty(Mono.fromSupplier(() -> toBlock(null, query, offset)));
+    }
+
+    private int limit(int offset) {
+        return Math.min(BLOCK_SIZE, MAX_RESULTS - offset);
+    }
+
+    private SearchBlockDTO toBlock(SemanticScholarResponse response, String query, int offset) {
+        if (response == null) {
+            log.warn("Received null response from Semantic Scholar API");
+            return new SearchBlockDTO(query, offset, new ArrayList<>(), 0);
+        }
+
+        log.info("Received {} results out of total {}", response.getData() != null ? response.getData().size() : 0, response.getTotal());
+        List<ArticleDTO> articles = new ArrayList<>();
+        if (response.getData() != null) {
+            articles = response.getData().stream().map(mapper::mapToArticleDTO).collect(Collectors.toList());
+        }
+        return new SearchBlockDTO(query, offset, articles, response.getTotal() != null ? response.getTotal() : 0);
+    }
+}
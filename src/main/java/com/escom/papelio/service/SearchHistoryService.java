@@ -1,10 +1,17 @@
 package com.escom.papelio.service;
 
+import com.escom.papelio.dto.HistoryPageDTO;
+import com.escom.papelio.dto.SearchHistoryEntryDTO;
+import com.escom.papelio.dto.TrendingWindow;
 import com.escom.papelio.model.SearchHistory;
 import com.escom.papelio.repository.SearchHistoryRepository;
+import com.escom.papelio.util.DecayingTopK;
+import com.escom.papelio.util.HistoryCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,30 +21,64 @@ import java.util.List;
 @Slf4j
 public class SearchHistoryService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final SearchHistoryRepository searchHistoryRepository;
+    private final HistoryWriter historyWriter;
+    private final PopularityCounterService popularityCounterService;
+    private final TrendingService trendingService;
 
     /**
-     * Save a user's search query to history
-     * @param userEmail the user's email
+     * Save a user's search query to history. The entry is written in the background by {@link HistoryWriter}
+     * @param userId the user's id
      * @param query the search query
      */
-    public void saveSearchQuery(String userEmail, String query) {
+    public void saveSearchQuery(Long userId, String query) {
         SearchHistory history = new SearchHistory();
-        history.setUserEmail(userEmail);
+        history.setUserId(userId);
         history.setSearchQuery(query);
         history.setSearchDate(LocalDateTime.now());
 
-        searchHistoryRepository.save(history);
-        log.info("Saved search history for user {}: {}", userEmail, query);
+        historyWriter.enqueue(history);
+        trendingService.recordSearch(query, history.getSearchDate());
+        log.debug("Queued search history for user {}: {}", userId, query);
     }
 
     /**
-     * Get search history for a specific user
-     * @param userEmail the user's email
-     * @return list of search history entries
+     * Save many search history entries in one transaction, e.g. for imports. The inserts are sent in JDBC batches
+     * @param entries the entries to save
+     * @return the saved entries
      */
-    public List<SearchHistory> getUserSearchHistory(String userEmail) {
-        return searchHistoryRepository.findByUserEmailOrderBySearchDateDesc(userEmail);
+    @Transactional
+    public List<SearchHistory> saveSearchQueries(List<SearchHistory> entries) {
+        List<SearchHistory> saved = searchHistoryRepository.saveAll(entries);
+        popularityCounterService.recordSearches(saved);
+        saved.forEach(entry -> trendingService.recordSearch(entry.getSearchQuery(), entry.getSearchDate()));
+        log.info("Saved {} search history entries", saved.size());
+        return saved;
+    }
+
+    /**
+     * Get one page of a user's search history, newest first
+     * @param userId the user's id
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param size page size, capped at {@value #MAX_PAGE_SIZE}
+     * @return the page of search history entries
+     */
+    public HistoryPageDTO<SearchHistoryEntryDTO> getSearchHistoryPage(Long userId, String cursor, int size) {
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<SearchHistoryEntryDTO> rows;
+        if (cursor == null) {
+            rows = searchHistoryRepository.findPage(userId, limit);
+        } else {
+            HistoryCursor position = HistoryCursor.decode(cursor);
+            rows = searchHistoryRepository.findPageAfter(userId, position.date(), position.id(), limit);
+        }
+
+        return HistoryPageDTO.of(rows, pageSize,
+                entry -> new HistoryCursor(entry.getSearchDate(), entry.getId()).encode());
     }
 
     /**
@@ -45,6 +86,16 @@ public class SearchHistoryService {
      * @return list of top search queries with counts
      */
     public List<Object[]> getTopSearchQueries() {
-        return searchHistoryRepository.findTopSearchQueries();
+        return popularityCounterService.getTopSearchQueries();
+    }
+
+    /**
+     * Get the queries trending within a time window, answered from memory
+     * @param window the trending window
+     * @param limit maximum number of queries
+     * @return list of trending queries with their decayed counts
+     */
+    public List<DecayingTopK.Entry<String>> getTrendingQueries(TrendingWindow window, int limit) {
+        return trendingService.getTrendingQueries(window, limit);
     }
-}
\ No newline at end of file
+}
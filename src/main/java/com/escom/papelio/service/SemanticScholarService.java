@@ -3,18 +3,33 @@ package com.escom.papelio.service;
 import com.escom.papelio.client.SemanticScholarApiClient;
 import com.escom.papelio.dto.ArticleDTO;
 import com.escom.papelio.dto.RecommendationRequestDTO;
+import com.escom.papelio.dto.SearchBlockDTO;
+import com.escom.papelio.dto.SearchProjection;
 import com.escom.papelio.dto.SearchRequestDTO;
 import com.escom.papelio.dto.SearchResponseDTO;
+import com.escom.papelio.exception.RateLimitExceededException;
 import com.escom.papelio.mapper.SemanticScholarMapper;
-import com.escom.papelio.model.SemanticScholarResponse;
+import com.escom.papelio.model.SemanticScholarRecommendedPapers;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,50 +38,75 @@ import java.util.stream.Collectors;
 public class SemanticScholarService implements ArticleService {
 
     private static final int TARGET_RECOMMENDATIONS = 10;
-    private static final int TARGET_RETRIVED_ARTICLES = 100;
     private static final String TARGET_FIELDS = "title,abstract,authors,venue,year,citationCount,url,externalIds";
+    private static final String DETAIL_FIELDS = TARGET_FIELDS + ",references";
     private final SemanticScholarApiClient apiClient;
     private final SemanticScholarMapper mapper;
+    private final PaperStoreService paperStore;
+    private final SearchBlockFetcher blockFetcher;
+    private final CacheManager cacheManager;
 
-    private static void getInfo(SemanticScholarResponse response) {
-        log.info("Received {} results out of total {}", response.getData() != null ? response.getData().size() : 0, response.getTotal());
+    /**
+     * Calls short-circuited by the resilience layer are expected while the API is down, so they are
+     * logged without a stack trace
+     */
+    private static void logFailure(String action, Throwable e) {
+        if (e instanceof CallNotPermittedException || e instanceof BulkheadFullException || e instanceof RateLimitExceededException) {
+            log.warn("Semantic Scholar unavailable while {} ({}), returning empty result", action, e.getMessage());
+        } else {
+            log.error("Error {}: {}", action, e.getMessage(), e);
+        }
     }
 
+    /**
+     * Serves the requested page as a slice of the cached result blocks it falls in
+     */
     @Override
-    @Cacheable(value = "basicSearchCache", key = "#searchRequest.query + '_' + #searchRequest.page + '_' + #searchRequest.size")
     public SearchResponseDTO searchArticles(SearchRequestDTO searchRequest) {
         log.info("Performing basic search with query: {}", searchRequest.getQuery());
 
         try {
-            var response = apiClient.searchPapers(searchRequest.getQuery(), searchRequest.getPage() * searchRequest.getSize(), TARGET_RETRIVED_ARTICLES, TARGET_FIELDS);
-
-            if (response == null) {
-                log.warn("Received null response from Semantic Scholar API");
-                return createEmptyResponse(searchRequest);
-            }
-
-            log.debug("API Response: {}", response);
-            getInfo(response);
-
-            List<ArticleDTO> articles = new ArrayList<>();
-            if (response.getData() != null) {
-                articles = response.getData().stream().map(mapper::mapToArticleDTO).collect(Collectors.toList());
-            }
-
-            return new SearchResponseDTO(articles, response.getTotal() != null ? response.getTotal() : 0, searchRequest.getPage(), calculateTotalPages(response.getTotal(), searchRequest.getSize()), searchRequest.getQuery());
+            List<SearchBlockDTO> blocks = blockOffsets(searchRequest).stream()
+                    .map(offset -> blockFetcher.fetchBlock(searchRequest.getQuery(), offset, projectionOf(searchRequest)))
+                    .collect(Collectors.toList());
+            return toSearchResponse(blocks, searchRequest);
         } catch (Exception e) {
-            log.error("Error searching articles: {}", e.getMessage(), e);
+            logFailure("searching articles", e);
             return createEmptyResponse(searchRequest);
         }
     }
 
+    /**
+     * Non-blocking version of {@link #searchArticles}; blocks spanned by the page are fetched concurrently
+     */
     @Override
-    @Cacheable(value = "articleDetails", key = "#id")
+    public CompletableFuture<SearchResponseDTO> searchArticlesAsync(SearchRequestDTO searchRequest) {
+        log.info("Performing async basic search with query: {}", searchRequest.getQuery());
+
+        return Flux.fromIterable(blockOffsets(searchRequest))
+                .flatMapSequential(offset -> Mono.fromFuture(() -> blockFetcher.fetchBlockAsync(searchRequest.getQuery(), offset, projectionOf(searchRequest))))
+                .collectList()
+                .map(blocks -> toSearchResponse(blocks, searchRequest))
+                .onErrorResume(e -> {
+                    logFailure("searching articles", e);
+                    return Mono.just(createEmptyResponse(searchRequest));
+                })
+                .toFuture();
+    }
+
+    @Override
+    @Cacheable(value = "articleDetails", key = "#id", unless = "#result == null")
     public Optional<ArticleDTO> getArticleById(String id) {
         log.info("Fetching article details for ID: {}", id);
 
+        Optional<ArticleDTO> stored = paperStore.findFresh(id);
+        if (stored.isPresent()) {
+            log.debug("Serving article {} from paper store", id);
+            return stored;
+        }
+
         try {
-            var paper = apiClient.getPaperById(id, "title,abstract,authors,venue,year,citationCount,url,externalIds,references");
+            var paper = apiClient.getPaperById(id, DETAIL_FIELDS);
 
             if (paper == null) {
                 log.warn("Received null response from Semantic Scholar API for ID: {}", id);
@@ -74,20 +114,101 @@ public class SemanticScholarService implements ArticleService {
             }
 
             log.debug("API Response for article {}: {}", id, paper);
-            return Optional.of(mapper.mapToArticleDTO(paper));
+            ArticleDTO article = mapper.mapToArticleDTO(paper);
+            paperStore.save(article);
+            return Optional.of(article);
         } catch (Exception e) {
-            log.error("Error fetching article details: {}", e.getMessage(), e);
-            return Optional.empty();
+            logFailure("fetching article details", e);
+            // An outdated stored copy beats no article at all
+            return paperStore.find(id);
+        }
+    }
+
+    /**
+     * Non-blocking version of {@link #getArticleById}, sharing its cache entries.
+     * The future completes with null when the article could not be retrieved
+     */
+    @Override
+    @Cacheable(value = "articleDetails", key = "#id", unless = "#result == null")
+    public CompletableFuture<ArticleDTO> getArticleByIdAsync(String id) {
+        log.info("Fetching article details asynchronously for ID: {}", id);
+
+        return fromStore(() -> paperStore.findFresh(id))
+                .doOnNext(article -> log.debug("Serving article {} from paper store", id))
+                .switchIfEmpty(Mono.defer(() -> articleRequest(id)
+                        .doOnSuccess(article -> {
+                            if (article == null) {
+                                log.warn("Received null response from Semantic Scholar API for ID: {}", id);
+                            }
+                        })
+                        .onErrorResume(e -> {
+                            logFailure("fetching article details", e);
+                            return fromStore(() -> paperStore.find(id));
+                        })))
+                .toFuture();
+    }
+
+    /**
+     * Blocking version of {@link #getArticlesByIdsAsync}
+     */
+    @Override
+    public List<ArticleDTO> getArticlesByIds(List<String> ids) {
+        return getArticlesByIdsAsync(ids).join();
+    }
+
+    /**
+     * Looks up several articles at once, in request order. Hits in the articleDetails cache and fresh
+     * copies in the paper store are served directly; the remaining IDs are fetched with a single
+     * paper/batch call per {@link SemanticScholarApiClient#MAX_BATCH_SIZE} IDs. Articles that cannot be
+     * found are left out of the result
+     */
+    @Override
+    public CompletableFuture<List<ArticleDTO>> getArticlesByIdsAsync(List<String> ids) {
+        List<String> distinctIds = ids.stream().distinct().toList();
+        Cache articleCache = cacheManager.getCache("articleDetails");
+        Map<String, ArticleDTO> found = new ConcurrentHashMap<>();
+
+        for (String id : distinctIds) {
+            Cache.ValueWrapper cached = articleCache != null ? articleCache.get(id) : null;
+            if (cached != null && cached.get() instanceof ArticleDTO article) {
+                found.put(id, article);
+            }
+        }
+
+        List<String> misses = distinctIds.stream().filter(id -> !found.containsKey(id)).toList();
+        if (misses.isEmpty()) {
+            return CompletableFuture.completedFuture(inRequestOrder(distinctIds, found));
         }
+        log.info("Batch lookup of {} articles: {} cached, {} to load", distinctIds.size(), found.size(), misses.size());
+
+        return Mono.fromCallable(() -> paperStore.findFresh(misses))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(stored -> {
+                    found.putAll(stored);
+                    List<String> remaining = misses.stream().filter(id -> !stored.containsKey(id)).toList();
+                    return articlesRequest(remaining)
+                            .onErrorResume(e -> {
+                                logFailure("fetching articles in batch", e);
+                                return Mono.fromCallable(() -> paperStore.find(remaining)).subscribeOn(Schedulers.boundedElastic());
+                            });
+                })
+                .map(fetched -> {
+                    found.putAll(fetched);
+                    if (articleCache != null) {
+                        misses.stream().filter(found::containsKey).forEach(id -> articleCache.put(id, found.get(id)));
+                    }
+                    return inRequestOrder(distinctIds, found);
+                })
+                .toFuture();
     }
 
-    @Cacheable(value = "recommendationsCache", key = "#request.paperIds.toString()")
+    @Cacheable(value = "recommendationsCache", key = "#request.paperIds.toString()", unless = "#result.articles.isEmpty()")
     public SearchResponseDTO getRecommendations(RecommendationRequestDTO request) {
         log.info("Getting recommendations for {} paper(s)", request.getPaperIds().size());
 
         if (request.getPaperIds() == null || request.getPaperIds().isEmpty()) {
             log.warn("Empty paper IDs list provided for recommendations");
-            return new SearchResponseDTO(new ArrayList<>(), 0, 0, 0, "recommendations");
+            return createEmptyRecommendations();
         }
 
         try {
@@ -95,27 +216,150 @@ public class SemanticScholarService implements ArticleService {
             var response = apiClient.getRecommendations(request.getPaperIds(), TARGET_RECOMMENDATIONS, TARGET_FIELDS);
 
             log.debug("API Response for recommendations: {}", response.toString());
+            return toRecommendationsResponse(response);
+        } catch (Exception e) {
+            logFailure("fetching recommendations", e);
+            return createEmptyRecommendations();
+        }
+    }
 
-            if (response.getRecommendedPapers() == null) {
-                log.warn("No recommendations found for the provided paper IDs");
-                return new SearchResponseDTO(new ArrayList<>(), 0, 0, 0, "recommendations");
-            }
+    /**
+     * Non-blocking version of {@link #getRecommendations}, sharing its cache entries
+     */
+    @Override
+    @Cacheable(value = "recommendationsCache", key = "#request.paperIds.toString()", unless = "#result.articles.isEmpty()")
+    public CompletableFuture<SearchResponseDTO> getRecommendationsAsync(RecommendationRequestDTO request) {
+        if (request.getPaperIds() == null || request.getPaperIds().isEmpty()) {
+            log.warn("Empty paper IDs list provided for recommendations");
+            return CompletableFuture.completedFuture(createEmptyRecommendations());
+        }
 
-            // Map the recommendations to DTOs
-            List<ArticleDTO> recommendations = response.getRecommendedPapers().stream().map(mapper::mapToArticleDTO).collect(Collectors.toList());
+        log.info("Getting recommendations asynchronously for {} paper(s)", request.getPaperIds().size());
 
-            // Limit to target count if necessary
-            if (recommendations.size() > TARGET_RECOMMENDATIONS) {
-                recommendations = recommendations.subList(0, TARGET_RECOMMENDATIONS);
-            }
+        return apiClient.getRecommendationsAsync(request.getPaperIds(), TARGET_RECOMMENDATIONS, TARGET_FIELDS)
+                .map(this::toRecommendationsResponse)
+                .defaultIfEmpty(createEmptyRecommendations())
+                .onErrorResume(e -> {
+                    logFailure("fetching recommendations", e);
+                    return Mono.just(createEmptyRecommendations());
+                })
+                .toFuture();
+    }
 
-            log.info("Returning {} recommendations", recommendations.size());
+    /**
+     * Reloads an articleDetails entry for refresh-ahead, failing rather than completing empty so the
+     * stale entry is kept
+     */
+    public CompletableFuture<ArticleDTO> refreshArticle(String id) {
+        log.debug("Refreshing cached article {}", id);
 
-            return new SearchResponseDTO(recommendations, recommendations.size(), 0, 1, "recommendations");
-        } catch (Exception e) {
-            log.error("Error fetching recommendations: {}", e.getMessage(), e);
-            return new SearchResponseDTO(new ArrayList<>(), 0, 0, 0, "recommendations");
+        return articleRequest(id)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Article not found while refreshing " + id)))
+                .toFuture();
+    }
+
+    /**
+     * Fetches an article from the API and writes it through to the paper store
+     */
+    private Mono<ArticleDTO> articleRequest(String id) {
+        return apiClient.getPaperByIdAsync(id, DETAIL_FIELDS)
+                .map(mapper::mapToArticleDTO)
+                .flatMap(article -> Mono.fromRunnable(() -> paperStore.save(article))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .thenReturn(article));
+    }
+
+    /**
+     * Fetches articles from the batch endpoint, chunked to the API limit, and writes them through to
+     * the paper store. The mapper ignores references, so the summary field list yields the same
+     * ArticleDTO as a single-paper lookup
+     */
+    private Mono<Map<String, ArticleDTO>> articlesRequest(List<String> ids) {
+        if (ids.isEmpty()) {
+            return Mono.just(Map.of());
         }
+
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += SemanticScholarApiClient.MAX_BATCH_SIZE) {
+            chunks.add(ids.subList(i, Math.min(i + SemanticScholarApiClient.MAX_BATCH_SIZE, ids.size())));
+        }
+
+        return Flux.fromIterable(chunks)
+                .concatMap(chunk -> apiClient.getPapersByIdsAsync(chunk, TARGET_FIELDS))
+                .flatMapIterable(papers -> papers.stream().filter(Objects::nonNull).map(mapper::mapToArticleDTO).toList())
+                .collectList()
+                .flatMap(articles -> Mono.fromRunnable(() -> paperStore.saveAll(articles))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .thenReturn(articles))
+                .map(articles -> articles.stream().collect(Collectors.toMap(ArticleDTO::getId, article -> article, (first, second) -> first)));
+    }
+
+    private static List<ArticleDTO> inRequestOrder(List<String> ids, Map<String, ArticleDTO> articles) {
+        return ids.stream().map(articles::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * Runs a blocking paper store lookup off the calling thread
+     */
+    private static Mono<ArticleDTO> fromStore(Supplier<Optional<ArticleDTO>> lookup) {
+        return Mono.fromCallable(lookup::get)
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    /**
+     * Offsets of the aligned blocks covering the requested page, within the range the API can page through
+     */
+    private static List<Integer> blockOffsets(SearchRequestDTO searchRequest) {
+        int start = searchRequest.getPage() * searchRequest.getSize();
+        int end = Math.min(start + searchRequest.getSize(), SearchBlockFetcher.MAX_RESULTS);
+
+        List<Integer> offsets = new ArrayList<>();
+        for (int offset = start - start % SearchBlockFetcher.BLOCK_SIZE; offset < end; offset += SearchBlockFetcher.BLOCK_SIZE) {
+            offsets.add(offset);
+        }
+        return offsets;
+    }
+
+    private static SearchProjection projectionOf(SearchRequestDTO searchRequest) {
+        return searchRequest.getProjection() != null ? searchRequest.getProjection() : SearchProjection.FULL;
+    }
+
+    private SearchResponseDTO toSearchResponse(List<SearchBlockDTO> blocks, SearchRequestDTO searchRequest) {
+        if (blocks.isEmpty()) {
+            return createEmptyResponse(searchRequest);
+        }
+
+        List<ArticleDTO> window = new ArrayList<>();
+        blocks.forEach(block -> window.addAll(block.getArticles()));
+
+        int from = searchRequest.getPage() * searchRequest.getSize() - blocks.get(0).getOffset();
+        int to = Math.min(from + searchRequest.getSize(), window.size());
+        List<ArticleDTO> articles = from < to ? new ArrayList<>(window.subList(from, to)) : new ArrayList<>();
+
+        long total = blocks.get(0).getTotalResults();
+        // Pages past MAX_RESULTS cannot be fetched, so they are not counted
+        int totalPages = calculateTotalPages(Math.min(total, SearchBlockFetcher.MAX_RESULTS), searchRequest.getSize());
+        return new SearchResponseDTO(articles, total, searchRequest.getPage(), totalPages, searchRequest.getQuery());
+    }
+
+    private SearchResponseDTO toRecommendationsResponse(SemanticScholarRecommendedPapers response) {
+        if (response.getRecommendedPapers() == null) {
+            log.warn("No recommendations found for the provided paper IDs");
+            return createEmptyRecommendations();
+        }
+
+        // Map the recommendations to DTOs
+        List<ArticleDTO> recommendations = response.getRecommendedPapers().stream().map(mapper::mapToArticleDTO).collect(Collectors.toList());
+
+        // Limit to target count if necessary
+        if (recommendations.size() > TARGET_RECOMMENDATIONS) {
+            recommendations = recommendations.subList(0, TARGET_RECOMMENDATIONS);
+        }
+
+        log.info("Returning {} recommendations", recommendations.size());
+
+        return new SearchResponseDTO(recommendations, recommendations.size(), 0, 1, "recommendations");
     }
 
     private int calculateLimitPerPaper(int paperCount) {
@@ -142,4 +386,8 @@ public class SemanticScholarService implements ArticleService {
     private SearchResponseDTO createEmptyResponse(SearchRequestDTO request) {
         return new SearchResponseDTO(new ArrayList<>(), 0, request.getPage(), 0, request.getQuery());
     }
+
+    private SearchResponseDTO createEmptyRecommendations() {
+        return new SearchResponseDTO(new ArrayList<>(), 0, 0, 0, "recommendations");
+    }
 }
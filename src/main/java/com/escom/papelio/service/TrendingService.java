@@ -0,0 +1,93 @@
+package com.escom.papelio.service;
+
+import com.escom.papelio.dto.ArticleDTO;
+import com.escom.papelio.dto.TrendingWindow;
+import com.escom.papelio.util.DecayingTopK;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory trending articles and search queries for the last hour, day and week. Every view and search
+ * feeds a {@link DecayingTopK} per window, so trending lists are answered without touching the database.
+ * The lists are approximate and start empty after a restart.
+ */
+@Service
+@Slf4j
+public class TrendingService {
+
+    private final Map<TrendingWindow, DecayingTopK<String>> articles = new EnumMap<>(TrendingWindow.class);
+    private final Map<TrendingWindow, DecayingTopK<String>> queries = new EnumMap<>(TrendingWindow.class);
+    private final Cache<String, String> titles;
+
+    @Autowired
+    public TrendingService(@Value("${app.trending.capacity:500}") int capacity) {
+        this(capacity, Clock.systemDefaultZone());
+    }
+
+    TrendingService(int capacity, Clock clock) {
+        for (TrendingWindow window : TrendingWindow.values()) {
+            articles.put(window, new DecayingTopK<>(capacity, window.getHalfLife(), clock));
+            queries.put(window, new DecayingTopK<>(capacity, window.getHalfLife(), clock));
+        }
+        // Enough titles for every article any window can track
+        this.titles = Caffeine.newBuilder()
+                .maximumSize((long) capacity * TrendingWindow.values().length)
+                .build();
+    }
+
+    public void recordView(String articleId, String title, LocalDateTime viewDate) {
+        Instant at = toInstant(viewDate);
+        if (title != null) {
+            titles.put(articleId, title);
+        }
+        articles.values().forEach(tracker -> tracker.add(articleId, at));
+    }
+
+    public void recordSearch(String query, LocalDateTime searchDate) {
+        Instant at = toInstant(searchDate);
+        queries.values().forEach(tracker -> tracker.add(query, at));
+    }
+
+    /**
+     * Trending articles as stubs carrying only ID and title
+     * @param window the trending window
+     * @param limit maximum number of articles
+     * @return articles ordered by decayed view count
+     */
+    public List<ArticleDTO> getTrendingArticles(TrendingWindow window, int limit) {
+        return articles.get(window).top(limit).stream()
+                .map(entry -> {
+                    ArticleDTO article = new ArticleDTO();
+                    article.setId(entry.key());
+                    article.setTitle(titles.getIfPresent(entry.key()));
+                    return article;
+                })
+                .toList();
+    }
+
+    /**
+     * Trending search queries
+     * @param window the trending window
+     * @param limit maximum number of queries
+     * @return queries with their decayed search counts, highest first
+     */
+    public List<DecayingTopK.Entry<String>> getTrendingQueries(TrendingWindow window, int limit) {
+        return queries.get(window).top(limit);
+    }
+
+    private Instant toInstant(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.atZone(ZoneId.systemDefault()).toInstant() : Instant.now();
+    }
+}
@@ -0,0 +1,46 @@
+package com.escom.papelio.service;
+
+import com.escom.papelio.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * In-memory user accounts keyed by email, shared by authentication and profile reads. Services that
+ * create, update or delete users invalidate the affected entries; the write expiry bounds staleness for
+ * changes made outside this instance. Cached users are shared and must be treated as read-only.
+ */
+@Component
+public class UserAccountCache {
+
+    private final Cache<String, User> usersByEmail;
+
+    public UserAccountCache(@Value("${app.user-details.cache.max-users:10000}") long maxUsers,
+                            @Value("${app.user-details.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.usersByEmail = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * Returns the cached user, loading it with the given function on a miss. Unknown emails are not cached
+     */
+    public Optional<User> get(String email, Function<String, Optional<User>> loader) {
+        return Optional.ofNullable(usersByEmail.get(email, key -> loader.apply(key).orElse(null)));
+    }
+
+    public void invalidate(String email) {
+        usersByEmail.invalidate(email);
+    }
+
+    // Deletes only know the ID; a linear pass over a bounded cache is fine for a rare admin action
+    public void invalidateById(Long id) {
+        usersByEmail.asMap().values().removeIf(user -> id.equals(user.getId()));
+    }
+}
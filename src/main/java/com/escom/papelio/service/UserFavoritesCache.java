@@ -0,0 +1,60 @@
+package com.escom.papelio.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-memory set of favorite article IDs per user, loaded on first access and bounded by the number
+ * of users kept. Writes are applied only to sets that are already loaded; a user that is not cached
+ * simply reloads from the database on the next access.
+ */
+@Component
+public class UserFavoritesCache {
+
+    private final Cache<Long, Set<String>> favoritesByUser;
+
+    public UserFavoritesCache(@Value("${app.favorites.cache.max-users:10000}") long maxUsers,
+                              @Value("${app.favorites.cache.expire-after-access:30m}") Duration expireAfterAccess) {
+        this.favoritesByUser = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    /**
+     * Returns a read-only view of the user's favorite IDs, loading them with the given function on a miss
+     */
+    public Set<String> get(Long userId, Function<Long, Collection<String>> loader) {
+        Set<String> favorites = favoritesByUser.get(userId, key -> {
+            Set<String> loaded = ConcurrentHashMap.newKeySet();
+            loaded.addAll(loader.apply(key));
+            return loaded;
+        });
+        return Collections.unmodifiableSet(favorites);
+    }
+
+    // computeIfPresent waits for an in-flight load of the same user, so a write made while the set
+    // is being loaded is not lost
+    public void add(Long userId, String articleId) {
+        favoritesByUser.asMap().computeIfPresent(userId, (key, favorites) -> {
+            favorites.add(articleId);
+            return favorites;
+        });
+    }
+
+    public void remove(Long userId, String articleId) {
+        favoritesByUser.asMap().computeIfPresent(userId, (key, favorites) -> {
+            favorites.remove(articleId);
+            return favorites;
+        });
+    }
+}
@@ -13,6 +13,7 @@ import lombok.RequiredArgsConstructor;
 public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserAccountCache userAccountCache;
 
     public void registrarUsuario(RegisterDTO registerDTO) {
         if (userRepository.existsByEmail(registerDTO.getEmail())) {
@@ -26,6 +27,7 @@ public class UserService {
         user.setRole("ROLE_USER");
 
         userRepository.save(user);
+        userAccountCache.invalidate(user.getEmail());
     }
 
     // Método para crear un usuario administrador (para uso inicial)
@@ -41,11 +43,12 @@ public class UserService {
         admin.setRole("ROLE_ADMIN");
 
         userRepository.save(admin);
+        userAccountCache.invalidate(admin.getEmail());
     }
 
     // New methods for profile management
     public UserDTO getUserProfile(String email) {
-        User user = userRepository.findByEmail(email)
+        User user = userAccountCache.get(email, userRepository::findByEmail)
                 .orElseThrow(() -> new RuntimeException("User no encontrado"));
 
         return convertToDTO(user);
@@ -76,6 +79,10 @@ public class UserService {
 
         // Save the updated user
         User updatedUser = userRepository.save(user);
+        userAccountCache.invalidate(currentEmail);
+        if (!currentEmail.equals(updatedUser.getEmail())) {
+            userAccountCache.invalidate(updatedUser.getEmail());
+        }
         return convertToDTO(updatedUser);
     }
 
@@ -1,57 +1,170 @@
 package com.escom.papelio.util;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
-import java.util.Random;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 
 @Component
 @Slf4j
 public class ApiRetryUtil {
-    private static final int MAX_RETRIES = 10;
-    private final Random random = new Random();
+
+    private final int maxRetries;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    public ApiRetryUtil(
+            @Value("${api.semantic-scholar.retry.max-retries:3}") int maxRetries,
+            @Value("${api.semantic-scholar.retry.base-delay:200ms}") Duration baseDelay,
+            @Value("${api.semantic-scholar.retry.max-delay:10s}") Duration maxDelay) {
+        this.maxRetries = maxRetries;
+        this.baseDelayMillis = baseDelay.toMillis();
+        this.maxDelayMillis = maxDelay.toMillis();
+    }
 
     /**
-     * Executes a function with retry logic for handling 429 Too Many Requests errors
-     * Will retry up to MAX_RETRIES times with a random delay between 0-1 second
+     * Executes a function, retrying transient failures (429, 5xx, timeouts and connection errors).
+     * Delays use decorrelated jitter between the base delay and three times the previous delay,
+     * capped at the max delay; a Retry-After header from the API takes precedence
      *
-     * @param supplier The function to execute that might throw a 429 exception
+     * @param supplier The function to execute that might fail transiently
      * @param <T>      The return type of the function
      * @return The result of the function execution
-     * @throws RuntimeException If the function still fails after all retries
+     * @throws RuntimeException If the function fails with a non-retryable error or after all retries
      */
     public <T> T executeWithRetry(Supplier<T> supplier) {
         int attempts = 0;
-        Exception lastException = null;
+        long previousDelay = baseDelayMillis;
 
-        while (attempts < MAX_RETRIES) {
+        while (true) {
             try {
                 return supplier.get();
-            } catch (WebClientResponseException e) {
-                if (e.getStatusCode().value() == 429) {
-                    attempts++;
-                    lastException = e;
-
-                    // Calculate random delay between 0-1000ms
-                    long delayMillis = random.nextInt(1000);
-                    log.warn("Received 429 Too Many Requests, retry attempt {}/{} after {}ms delay", 
-                            attempts, MAX_RETRIES, delayMillis);
-
-                    try {
-                        Thread.sleep(delayMillis);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new RuntimeException("Interrupted during retry delay", ie);
-                    }
-                } else {
-                    throw new RuntimeException("API call failed", e);
+            } catch (RuntimeException e) {
+                if (!isRetryable(e)) {
+                    throw e instanceof WebClientResponseException ? new RuntimeException("API call failed", e) : e;
+                }
+                if (attempts >= maxRetries) {
+                    log.error("Failed after {} retry attempts", maxRetries);
+                    throw new RuntimeException("API call failed after maximum retries", e);
+                }
+
+                attempts++;
+                previousDelay = nextDelay(e, previousDelay);
+                log.warn("Transient API failure ({}), retry attempt {}/{} after {}ms delay",
+                        describe(e), attempts, maxRetries, previousDelay);
+
+                try {
+                    Thread.sleep(previousDelay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted during retry delay", ie);
                 }
             }
         }
+    }
+
+    /**
+     * Reactive counterpart of {@link #executeWithRetry}: resubscribes to the given Mono with the same
+     * policy, waiting on a timer instead of sleeping a thread
+     *
+     * @param mono The request to execute, re-sent on every resubscription
+     * @param <T>  The type emitted by the request
+     * @return A Mono that retries transient errors and maps other API errors to RuntimeException
+     */
+    public <T> Mono<T> withRetry(Mono<T> mono) {
+        return mono
+                .retryWhen(decorrelatedJitter())
+                .onErrorMap(WebClientResponseException.class, e -> new RuntimeException("API call failed", e));
+    }
+
+    private Retry decorrelatedJitter() {
+        return Retry.from(signals -> {
+            // Created per subscription, so every call keeps its own backoff state
+            long[] previousDelay = {baseDelayMillis};
+            return signals.concatMap(signal -> {
+                Throwable failure = signal.failure();
+                if (!isRetryable(failure)) {
+                    return Flux.error(failure);
+                }
+                if (signal.totalRetries() >= maxRetries) {
+                    log.error("Failed after {} retry attempts", maxRetries);
+                    return Flux.error(new RuntimeException("API call failed after maximum retries", failure));
+                }
+
+                previousDelay[0] = nextDelay(failure, previousDelay[0]);
+                log.warn("Transient API failure ({}), retry attempt {}/{} after {}ms delay",
+                        describe(failure), signal.totalRetries() + 1, maxRetries, previousDelay[0]);
+                return Mono.delay(Duration.ofMillis(previousDelay[0]));
+            });
+        });
+    }
+
+    private long nextDelay(Throwable failure, long previousDelay) {
+        Long retryAfter = retryAfterMillis(failure);
+        if (retryAfter != null) {
+            return Math.min(retryAfter, maxDelayMillis);
+        }
+        long upper = Math.max(baseDelayMillis + 1, previousDelay * 3);
+        return Math.min(maxDelayMillis, ThreadLocalRandom.current().nextLong(baseDelayMillis, upper));
+    }
+
+    /**
+     * Reads the Retry-After header, given either in seconds or as an HTTP date
+     */
+    private Long retryAfterMillis(Throwable failure) {
+        if (!(failure instanceof WebClientResponseException e)) {
+            return null;
+        }
+        String retryAfter = e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return null;
+        }
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+        } catch (NumberFormatException ignored) {
+            // Not delta-seconds, try the HTTP-date form
+        }
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toMillis());
+        } catch (DateTimeParseException ex) {
+            log.debug("Ignoring unparseable Retry-After header: {}", retryAfter);
+            return null;
+        }
+    }
+
+    private boolean isRetryable(Throwable failure) {
+        if (failure instanceof WebClientResponseException e) {
+            return e.getStatusCode().value() == 429 || e.getStatusCode().is5xxServerError();
+        }
+        if (failure instanceof WebClientRequestException) {
+            // I/O level failures: connection refused/reset, connect and read timeouts
+            return true;
+        }
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof TimeoutException || t instanceof io.netty.handler.timeout.TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        log.error("Failed after {} retry attempts", MAX_RETRIES);
-        throw new RuntimeException("API call failed after maximum retries", lastException);
+    private String describe(Throwable failure) {
+        return failure instanceof WebClientResponseException e
+                ? String.valueOf(e.getStatusCode().value())
+                : failure.getClass().getSimpleName();
     }
 }
@@ -0,0 +1,153 @@
+package com.escom.papelio.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate top-k of an event stream with exponentially decaying counts, using the Space-Saving algorithm.
+ * At most {@code capacity} keys are tracked; an untracked key replaces the lowest one and inherits its score,
+ * so a score can overestimate by at most the score it inherited but a heavy hitter is never dropped.
+ * Decay is applied forward: new events get weights that grow with time instead of every stored score
+ * shrinking, and scores are rescaled before the weights overflow.
+ * Tracked keys sit in a binary min-heap by score, so counting an event and evicting the lowest key take
+ * O(log capacity).
+ */
+public class DecayingTopK<K> {
+
+    /** Rescale once new weights reach 2^64 */
+    private static final double RESCALE_EXPONENT = 64;
+
+    private final int capacity;
+    private final double halfLifeMillis;
+    private final Clock clock;
+    private final Map<K, Node<K>> nodes = new HashMap<>();
+    private final Node<K>[] heap;
+    private long landmarkMillis;
+
+    public DecayingTopK(int capacity, Duration halfLife, Clock clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        @SuppressWarnings("unchecked")
+        Node<K>[] heap = (Node<K>[]) new Node<?>[capacity];
+        this.heap = heap;
+        this.halfLifeMillis = halfLife.toMillis();
+        this.clock = clock;
+        this.landmarkMillis = clock.millis();
+    }
+
+    /**
+     * Counts one event for the key at the given time
+     */
+    public synchronized void add(K key, Instant at) {
+        double exponent = (at.toEpochMilli() - landmarkMillis) / halfLifeMillis;
+        if (exponent > RESCALE_EXPONENT) {
+            rescale(at.toEpochMilli());
+            exponent = 0;
+        }
+        double weight = Math.pow(2, exponent);
+
+        Node<K> node = nodes.get(key);
+        if (node == null && nodes.size() < capacity) {
+            node = new Node<>(key, nodes.size());
+            heap[node.index] = node;
+            nodes.put(key, node);
+            siftUp(node.index);
+        } else if (node == null) {
+            // Reuse the lowest node for the new key; it keeps the evicted score
+            node = heap[0];
+            nodes.remove(node.key);
+            node.key = key;
+            nodes.put(key, node);
+        }
+        // Scores only grow, so the node can only move towards the leaves
+        node.score += weight;
+        siftDown(node.index);
+    }
+
+    /**
+     * The highest-scoring keys, scores decayed to the current time
+     * @param limit maximum number of entries
+     * @return entries ordered by descending score
+     */
+    public synchronized List<Entry<K>> top(int limit) {
+        double scale = Math.pow(2, -(clock.millis() - landmarkMillis) / halfLifeMillis);
+        return nodes.values().stream()
+                .sorted(Comparator.comparingDouble((Node<K> node) -> node.score).reversed())
+                .limit(limit)
+                .map(node -> new Entry<>(node.key, node.score * scale))
+                .toList();
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    private void rescale(long newLandmarkMillis) {
+        double factor = Math.pow(2, -(newLandmarkMillis - landmarkMillis) / halfLifeMillis);
+        // Scaling every score by the same factor keeps the heap order
+        for (Node<K> node : nodes.values()) {
+            node.score *= factor;
+        }
+        landmarkMillis = newLandmarkMillis;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heap[parent].score <= heap[index].score) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        int size = nodes.size();
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && heap[left].score < heap[smallest].score) {
+                smallest = left;
+            }
+            if (right < size && heap[right].score < heap[smallest].score) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        Node<K> node = heap[i];
+        heap[i] = heap[j];
+        heap[j] = node;
+        heap[i].index = i;
+        heap[j].index = j;
+    }
+
+    private static final class Node<K> {
+        K key;
+        double score;
+        int index;
+
+        Node(K key, int index) {
+            this.key = key;
+            this.index = index;
+        }
+    }
+
+    public record Entry<K>(K key, double score) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.escom.papelio.util;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight deduplication of identical concurrent calls: while a call for a key is in flight,
+ * other callers with the same key wait for its result instead of issuing their own.
+ * The entry is removed as soon as the call completes, so results are shared but never cached here.
+ * Blocking and reactive callers share the same in-flight calls.
+ */
+@Slf4j
+public class RequestCoalescer {
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the call on the calling thread, or waits for an identical call already in flight
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> call) {
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            log.debug("Joining in-flight call for key {}", key);
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+
+        try {
+            T result = call.get();
+            created.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // Waiters must be released whatever the call throws
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * Reactive variant of {@link #execute}. The shared call is not cancelled when a single subscriber cancels
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> executeAsync(String key, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            CompletableFuture<Object> created = new CompletableFuture<>();
+            CompletableFuture<Object> existing = inFlight.putIfAbsent(key, created);
+            if (existing != null) {
+                log.debug("Joining in-flight call for key {}", key);
+                return Mono.fromFuture((CompletableFuture<T>) (CompletableFuture<?>) existing, true);
+            }
+
+            // Deferred so that a supplier throwing while building the call still completes the entry
+            Mono.defer(call).toFuture().whenComplete((result, error) -> {
+                inFlight.remove(key, created);
+                if (error != null) {
+                    created.completeExceptionally(error);
+                } else {
+                    created.complete(result);
+                }
+            });
+            return Mono.fromFuture((CompletableFuture<T>) (CompletableFuture<?>) created, true);
+        });
+    }
+}
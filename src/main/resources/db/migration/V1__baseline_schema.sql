@@ -0,0 +1,79 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update). Every statement is guarded so the script
+-- also applies cleanly to databases that were created that way.
+
+CREATE TABLE IF NOT EXISTS usuarios (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email    VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    name     VARCHAR(255) NOT NULL,
+    role     VARCHAR(255)
+);
+
+CREATE SEQUENCE IF NOT EXISTS search_history_seq START WITH 1 INCREMENT BY 50;
+CREATE TABLE IF NOT EXISTS search_history (
+    id           BIGINT PRIMARY KEY,
+    user_email   VARCHAR(255) NOT NULL,
+    search_query VARCHAR(255) NOT NULL,
+    search_date  TIMESTAMP(6) NOT NULL
+);
+
+CREATE SEQUENCE IF NOT EXISTS article_view_history_seq START WITH 1 INCREMENT BY 50;
+CREATE TABLE IF NOT EXISTS article_view_history (
+    id         BIGINT PRIMARY KEY,
+    title      VARCHAR(255) NOT NULL,
+    user_email VARCHAR(255) NOT NULL,
+    article_id VARCHAR(255) NOT NULL,
+    view_date  TIMESTAMP(6) NOT NULL
+);
+
+CREATE SEQUENCE IF NOT EXISTS article_favorites_seq START WITH 1 INCREMENT BY 50;
+CREATE TABLE IF NOT EXISTS article_favorites (
+    id            BIGINT PRIMARY KEY,
+    title         VARCHAR(255) NOT NULL,
+    user_email    VARCHAR(255) NOT NULL,
+    article_id    VARCHAR(255) NOT NULL,
+    favorite_date TIMESTAMP(6) NOT NULL,
+    UNIQUE (user_email, article_id)
+);
+
+CREATE TABLE IF NOT EXISTS papers (
+    id               VARCHAR(255) PRIMARY KEY,
+    title            TEXT,
+    abstract_text    TEXT,
+    doi              VARCHAR(255),
+    authors          JSONB,
+    journal          TEXT,
+    publication_date DATE,
+    document_type    VARCHAR(255),
+    language         VARCHAR(255),
+    citation_count   INTEGER,
+    url              TEXT,
+    fetched_at       TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS article_view_counts (
+    article_id     VARCHAR(255) PRIMARY KEY,
+    title          VARCHAR(255) NOT NULL,
+    view_count     BIGINT       NOT NULL,
+    last_viewed_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS search_query_counts (
+    search_query     VARCHAR(255) PRIMARY KEY,
+    search_count     BIGINT       NOT NULL,
+    last_searched_at TIMESTAMP(6) NOT NULL
+);
+
+-- Move the id sequences past ids written while these tables used IDENTITY columns. Hibernate hands out
+-- blocks of 50 ids starting at the sequence value, so a sequence is only moved when rows reach beyond it.
+SELECT setval('search_history_seq', m.max_id + 1, false)
+FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM search_history) m, search_history_seq s
+WHERE m.max_id >= CASE WHEN s.is_called THEN s.last_value + 50 ELSE s.last_value END;
+
+SELECT setval('article_view_history_seq', m.max_id + 1, false)
+FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM article_view_history) m, article_view_history_seq s
+WHERE m.max_id >= CASE WHEN s.is_called THEN s.last_value + 50 ELSE s.last_value END;
+
+SELECT setval('article_favorites_seq', m.max_id + 1, false)
+FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM article_favorites) m, article_favorites_seq s
+WHERE m.max_id >= CASE WHEN s.is_called THEN s.last_value + 50 ELSE s.last_value END;
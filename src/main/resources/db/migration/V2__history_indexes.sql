@@ -0,0 +1,27 @@
+-- Indexes for the per-user history, favorites and popularity queries. Built concurrently so large
+-- history tables stay writable; see V2__history_indexes.sql.conf.
+
+-- Keyset pages of a user's searches: WHERE user_email = ? [AND (search_date, id) < (?, ?)] ORDER BY search_date DESC, id DESC
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_search_history_user_date
+    ON search_history (user_email, search_date DESC, id DESC);
+
+-- Keyset pages of a user's views, and recent distinct article IDs (index-only thanks to INCLUDE)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_article_view_history_user_date_id
+    ON article_view_history (user_email, view_date DESC, id DESC) INCLUDE (article_id);
+DROP INDEX CONCURRENTLY IF EXISTS idx_article_view_history_user_date;
+
+-- Counter rebuilds and per-article lookups
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_article_view_history_article
+    ON article_view_history (article_id);
+
+-- A user's favorites, newest first; (user_email, article_id) is already covered by the unique constraint
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_article_favorites_user_date
+    ON article_favorites (user_email, favorite_date DESC);
+
+-- Top-10 reads from the popularity counters
+DROP INDEX CONCURRENTLY IF EXISTS idx_article_view_counts_view_count;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_article_view_counts_view_count
+    ON article_view_counts (view_count DESC);
+DROP INDEX CONCURRENTLY IF EXISTS idx_search_query_counts_search_count;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_search_query_counts_search_count
+    ON search_query_counts (search_count DESC);
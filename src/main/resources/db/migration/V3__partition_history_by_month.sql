@@ -0,0 +1,62 @@
+-- Range-partition the history tables by month so old months can be archived and dropped as a whole and
+-- date-bounded queries only read recent partitions. New partitions are created ahead of time by
+-- HistoryPartitionService; the default partitions only catch rows outside every monthly range.
+-- The primary keys must include the partition column.
+
+ALTER TABLE search_history RENAME TO search_history_unpartitioned;
+CREATE TABLE search_history (
+    id           BIGINT       NOT NULL,
+    user_email   VARCHAR(255) NOT NULL,
+    search_query VARCHAR(255) NOT NULL,
+    search_date  TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id, search_date)
+) PARTITION BY RANGE (search_date);
+CREATE TABLE search_history_default PARTITION OF search_history DEFAULT;
+
+ALTER TABLE article_view_history RENAME TO article_view_history_unpartitioned;
+CREATE TABLE article_view_history (
+    id         BIGINT       NOT NULL,
+    title      VARCHAR(255) NOT NULL,
+    user_email VARCHAR(255) NOT NULL,
+    article_id VARCHAR(255) NOT NULL,
+    view_date  TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id, view_date)
+) PARTITION BY RANGE (view_date);
+CREATE TABLE article_view_history_default PARTITION OF article_view_history DEFAULT;
+
+-- One partition per month from the oldest existing row through three months ahead, named <table>_yYYYYmMM
+DO $$
+DECLARE
+    history RECORD;
+    month   DATE;
+BEGIN
+    FOR history IN SELECT * FROM (VALUES ('search_history', 'search_date'),
+                                         ('article_view_history', 'view_date')) AS t (parent, date_column)
+    LOOP
+        EXECUTE format('SELECT date_trunc(''month'', COALESCE(MIN(%I), now()))::date FROM %I',
+                       history.date_column, history.parent || '_unpartitioned')
+            INTO month;
+        WHILE month <= date_trunc('month', now() + interval '3 months')::date LOOP
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                           history.parent || '_y' || to_char(month, 'YYYY') || 'm' || to_char(month, 'MM'),
+                           history.parent, month, (month + interval '1 month')::date);
+            month := (month + interval '1 month')::date;
+        END LOOP;
+    END LOOP;
+END $$;
+
+INSERT INTO search_history (id, user_email, search_query, search_date)
+SELECT id, user_email, search_query, search_date FROM search_history_unpartitioned;
+DROP TABLE search_history_unpartitioned;
+
+INSERT INTO article_view_history (id, title, user_email, article_id, view_date)
+SELECT id, title, user_email, article_id, view_date FROM article_view_history_unpartitioned;
+DROP TABLE article_view_history_unpartitioned;
+
+-- Indexes on the partitioned tables are created on every partition, including future ones
+CREATE INDEX idx_search_history_user_date
+    ON search_history (user_email, search_date DESC, id DESC);
+CREATE INDEX idx_article_view_history_user_date_id
+    ON article_view_history (user_email, view_date DESC, id DESC) INCLUDE (article_id);
+CREATE INDEX idx_article_view_history_article
+    ON article_view_history (article_id);
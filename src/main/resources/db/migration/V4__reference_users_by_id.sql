@@ -0,0 +1,39 @@
+-- Reference users by their numeric ID instead of their email: the ID never changes when a user edits
+-- their email, and a bigint key keeps the per-user indexes smaller. Rows whose email matches no user
+-- belong to deleted accounts or to emails changed since, and cannot be attributed, so they are dropped.
+
+-- search_history
+ALTER TABLE search_history ADD COLUMN user_id BIGINT;
+UPDATE search_history h SET user_id = u.id FROM usuarios u WHERE u.email = h.user_email;
+DELETE FROM search_history WHERE user_id IS NULL;
+ALTER TABLE search_history ALTER COLUMN user_id SET NOT NULL;
+ALTER TABLE search_history
+    ADD CONSTRAINT fk_search_history_user FOREIGN KEY (user_id) REFERENCES usuarios (id) ON DELETE CASCADE;
+-- Dropping the column also drops the indexes built on it
+ALTER TABLE search_history DROP COLUMN user_email;
+CREATE INDEX idx_search_history_user_date
+    ON search_history (user_id, search_date DESC, id DESC);
+
+-- article_view_history
+ALTER TABLE article_view_history ADD COLUMN user_id BIGINT;
+UPDATE article_view_history h SET user_id = u.id FROM usuarios u WHERE u.email = h.user_email;
+DELETE FROM article_view_history WHERE user_id IS NULL;
+ALTER TABLE article_view_history ALTER COLUMN user_id SET NOT NULL;
+ALTER TABLE article_view_history
+    ADD CONSTRAINT fk_article_view_history_user FOREIGN KEY (user_id) REFERENCES usuarios (id) ON DELETE CASCADE;
+ALTER TABLE article_view_history DROP COLUMN user_email;
+CREATE INDEX idx_article_view_history_user_date_id
+    ON article_view_history (user_id, view_date DESC, id DESC) INCLUDE (article_id);
+
+-- article_favorites; the old (user_email, article_id) unique constraint goes with the column
+ALTER TABLE article_favorites ADD COLUMN user_id BIGINT;
+UPDATE article_favorites f SET user_id = u.id FROM usuarios u WHERE u.email = f.user_email;
+DELETE FROM article_favorites WHERE user_id IS NULL;
+ALTER TABLE article_favorites ALTER COLUMN user_id SET NOT NULL;
+ALTER TABLE article_favorites
+    ADD CONSTRAINT fk_article_favorites_user FOREIGN KEY (user_id) REFERENCES usuarios (id) ON DELETE CASCADE;
+ALTER TABLE article_favorites DROP COLUMN user_email;
+ALTER TABLE article_favorites
+    ADD CONSTRAINT uk_article_favorites_user_article UNIQUE (user_id, article_id);
+CREATE INDEX idx_article_favorites_user_date
+    ON article_favorites (user_id, favorite_date DESC);
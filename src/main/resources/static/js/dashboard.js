@@ -28,6 +28,9 @@ document.addEventListener('DOMContentLoaded', function() {
 let currentArticle = null;
 let isFavorite = false;
 
+// Favorite status of the articles shown on the dashboard, by article ID
+const favoriteStatus = new Map();
+
 // Fetch user-specific recommendations
 function fetchRecommendations() {
     const recommendationsContainer = document.getElementById('recommendations-container');
@@ -116,6 +119,8 @@ function displayArticles(articles, container, emptyMessage) {
     });
     
     container.appendChild(articleList);
+
+    loadFavoriteStatus(articles.map(article => article.paperId || article.id));
     
     // Add event listeners to view details buttons
     container.querySelectorAll('.view-article-details').forEach(button => {
@@ -208,23 +213,36 @@ function renderArticleDetails(article) {
     }
 }
 
-// Check if the article is in user's favorites
-function checkFavoriteStatus(articleId) {
-    $.ajax({
-        url: `/api/search/favorite/check/${articleId}`,
-        method: 'GET',
+// Fetch the favorite status of many articles with one request
+function loadFavoriteStatus(articleIds) {
+    const ids = articleIds.filter(id => id && !favoriteStatus.has(id));
+    if (ids.length === 0) {
+        return $.Deferred().resolve().promise();
+    }
+
+    return $.ajax({
+        url: '/api/search/favorite/check',
+        method: 'POST',
+        contentType: 'application/json',
+        data: JSON.stringify({ ids }),
         success: (response) => {
-            isFavorite = response.isFavorite;
-            updateFavoriteButtonUI();
+            const favoriteIds = new Set(response.favoriteIds);
+            ids.forEach(id => favoriteStatus.set(id, favoriteIds.has(id)));
         },
         error: (error) => {
             console.error('Error checking favorite status:', error);
-            isFavorite = false;
-            updateFavoriteButtonUI();
         }
     });
 }
 
+// Check if the article is in user's favorites, using the status loaded with the article lists
+function checkFavoriteStatus(articleId) {
+    loadFavoriteStatus([articleId]).always(() => {
+        isFavorite = favoriteStatus.get(articleId) === true;
+        updateFavoriteButtonUI();
+    });
+}
+
 // Update favorite button appearance
 function updateFavoriteButtonUI() {
     const $button = $('#favoriteButton');
@@ -265,6 +283,7 @@ function addToFavorites() {
         data: JSON.stringify(payload),
         success: (response) => {
             isFavorite = true;
+            favoriteStatus.set(currentArticle.id, true);
             updateFavoriteButtonUI();
         },
         error: (error) => {
@@ -283,6 +302,7 @@ function removeFromFavorites() {
         method: 'DELETE',
         success: (response) => {
             isFavorite = false;
+            favoriteStatus.set(currentArticle.id, false);
             updateFavoriteButtonUI();
         },
         error: (error) => {
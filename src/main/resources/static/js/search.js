@@ -37,9 +37,13 @@ class SearchStateMachine {
         this.state = 'initial';
 
        
+        // Only the page being shown; pages are fetched from the server one at a time
         this.allResults = [];
+        this.currentQuery = '';
         this.currentPage = 1;
         this.resultsPerPage = 10;
+        this.totalResults = 0;
+        this.totalPages = 0;
         this.activeFilters = {
             sortBy: 'relevance'
         };
@@ -147,8 +151,7 @@ class SearchStateMachine {
            
             $('#sortOptionsDropdown').text('Sort by: ' + $(e.currentTarget).text());
 
-           
-            this.currentPage = 1;
+            // Sorting reorders the page on screen
             this.transition('results');
         });
 
@@ -156,9 +159,9 @@ class SearchStateMachine {
         $(document).on('click', '.page-link', (e) => {
             e.preventDefault();
             const page = $(e.currentTarget).data('page');
-            if (page && page !== this.currentPage) {
+            if (page && page !== this.currentPage && page <= this.totalPages) {
                 this.currentPage = page;
-                this.transition('results');
+                this.transition('searching', this.currentQuery);
                
                 $('html, body').animate({
                     scrollTop: $("#searchResults").offset().top - 20
@@ -195,6 +198,14 @@ class SearchStateMachine {
 
    
     checkFavoriteStatus(articleId) {
+        // Search results for a logged-in user already carry their favorite flag
+        const result = this.allResults.find(article => article.id === articleId);
+        if (result && typeof result.favorite === 'boolean') {
+            this.isFavorite = result.favorite;
+            this.updateFavoriteButtonUI();
+            return;
+        }
+
         $('#loader').show();
 
         $.ajax({
@@ -216,6 +227,14 @@ class SearchStateMachine {
     }
 
    
+    setResultFavorite(articleId, isFavorite) {
+        const result = this.allResults.find(article => article.id === articleId);
+        if (result) {
+            result.favorite = isFavorite;
+        }
+    }
+
+   
     updateFavoriteButtonUI() {
         const $button = $('#favoriteButton');
 
@@ -246,6 +265,7 @@ class SearchStateMachine {
             data: JSON.stringify(payload),
             success: (response) => {
                 this.isFavorite = true;
+                this.setResultFavorite(this.currentArticle.id, true);
                 this.updateFavoriteButtonUI();
                 $('#loader').hide();
             },
@@ -268,6 +288,7 @@ class SearchStateMachine {
             method: 'DELETE',
             success: (response) => {
                 this.isFavorite = false;
+                this.setResultFavorite(this.currentArticle.id, false);
                 this.updateFavoriteButtonUI();
                 $('#loader').hide();
             },
@@ -290,6 +311,7 @@ class SearchStateMachine {
             method: 'DELETE',
             success: (response) => {
                 $('#loader').hide();
+                this.setResultFavorite(articleId, false);
                
                 this.loadFavorites();
             },
@@ -317,7 +339,8 @@ class SearchStateMachine {
     resetPagination() {
         this.allResults = [];
         this.currentPage = 1;
-       
+        this.totalResults = 0;
+        this.totalPages = 0;
     }
 
    
@@ -343,7 +366,10 @@ class SearchStateMachine {
         $('#searchHistoryContainer').hide();
 
         const endpoint = '/api/search';
-        const payload = {query: query};
+        this.currentQuery = query;
+        // Only the page being shown is fetched. Abstracts are loaded with the article details,
+        // so the list only needs a summary
+        const payload = {query: query, page: this.currentPage - 1, size: this.resultsPerPage, projection: 'summary'};
 
         $.ajax({
             url: endpoint,
@@ -353,6 +379,8 @@ class SearchStateMachine {
             success: (response) => {
                
                 this.allResults = response.articles || [];
+                this.totalResults = response.totalResults || 0;
+                this.totalPages = response.totalPages || 0;
 
                 if (this.allResults.length > 0) {
                     this.transition('results');
@@ -373,20 +401,14 @@ class SearchStateMachine {
         $('#searchResultsContainer').show();
         $('#searchHistoryContainer').hide();
 
-        const filteredResults = this.getFilteredResults();
-        const totalResults = filteredResults.length;
-        const totalPages = Math.ceil(totalResults / this.resultsPerPage);
-
-       
+        const currentResults = this.getFilteredResults();
         const startIndex = (this.currentPage - 1) * this.resultsPerPage;
-        const endIndex = Math.min(startIndex + this.resultsPerPage, totalResults);
-        const currentResults = filteredResults.slice(startIndex, endIndex);
 
        
-        this.displayResults(currentResults, startIndex + 1, endIndex, totalResults);
+        this.displayResults(currentResults, startIndex + 1, startIndex + currentResults.length, this.totalResults);
 
        
-        this.generatePagination(totalPages);
+        this.generatePagination(this.totalPages);
     }
 
    
@@ -521,32 +543,22 @@ class SearchStateMachine {
     }
 
    
-    loadSearchHistory() {
+    loadSearchHistory(cursor = null) {
         $.ajax({
-            url: '/api/search/history', method: 'GET', success: (history) => {
-                if (!history || history.length === 0) {
+            url: '/api/search/history', method: 'GET', data: cursor ? {cursor} : {}, success: (page) => {
+                const history = page.items || [];
+                if (!cursor && history.length === 0) {
                     $('#searchHistoryContent').html(`
                         <div class="alert panel-alert-secondary">No recent searches in your history.</div>
                     `);
                     return;
                 }
 
-                let historyHtml = `
-                    <table class="panel-table">
-                        <thead>
-                            <tr>
-                                <th>Query</th>
-                                <th>Date</th>
-                                <th>Actions</th>
-                            </tr>
-                        </thead>
-                        <tbody>
-                `;
-
+                let rowsHtml = '';
                 history.forEach(item => {
                     const date = new Date(item.searchDate).toLocaleString();
                     const query = item.searchQuery;
-                    historyHtml += `
+                    rowsHtml += `
                         <tr>
                             <td>${query}</td>
                             <td>${date}</td>
@@ -559,8 +571,22 @@ class SearchStateMachine {
                     `;
                 });
 
-                historyHtml += `</tbody></table>`;
-                $('#searchHistoryContent').html(historyHtml);
+                if (!cursor) {
+                    $('#searchHistoryContent').html(`
+                        <table class="panel-table">
+                            <thead>
+                                <tr>
+                                    <th>Query</th>
+                                    <th>Date</th>
+                                    <th>Actions</th>
+                                </tr>
+                            </thead>
+                            <tbody></tbody>
+                        </table>
+                    `);
+                }
+                $('#searchHistoryContent tbody').append(rowsHtml);
+                this.renderLoadMore('#searchHistoryContent', page.nextCursor, (next) => this.loadSearchHistory(next));
             }, error: (err) => {
                 $('#searchHistoryContent').html(`
                     <div class="alert panel-alert-danger">Error loading search history.</div>
@@ -571,33 +597,23 @@ class SearchStateMachine {
     }
 
    
-    loadArticleHistory() {
+    loadArticleHistory(cursor = null) {
         $.ajax({
-            url: '/api/search/article-history', method: 'GET', success: (history) => {
-                if (!history || history.length === 0) {
+            url: '/api/search/article-history', method: 'GET', data: cursor ? {cursor} : {}, success: (page) => {
+                const history = page.items || [];
+                if (!cursor && history.length === 0) {
                     $('#articleHistoryContent').html(`
                         <div class="alert panel-alert-secondary">No recent article views in your history.</div>
                     `);
                     return;
                 }
 
-                let historyHtml = `
-                    <table class="panel-table">
-                        <thead>
-                            <tr>
-                                <th>Title</th>
-                                <th>Viewed On</th>
-                                <th>Actions</th>
-                            </tr>
-                        </thead>
-                        <tbody>
-                `;
-
+                let rowsHtml = '';
                 history.forEach(item => {
                     const date = new Date(item.viewDate).toLocaleString();
                     const articleId = item.articleId;
                     const articleTitle = item.title;
-                    historyHtml += `
+                    rowsHtml += `
                         <tr>
                             <td>${articleTitle}</td>
                             <td>${date}</td>
@@ -610,8 +626,22 @@ class SearchStateMachine {
                     `;
                 });
 
-                historyHtml += `</tbody></table>`;
-                $('#articleHistoryContent').html(historyHtml);
+                if (!cursor) {
+                    $('#articleHistoryContent').html(`
+                        <table class="panel-table">
+                            <thead>
+                                <tr>
+                                    <th>Title</th>
+                                    <th>Viewed On</th>
+                                    <th>Actions</th>
+                                </tr>
+                            </thead>
+                            <tbody></tbody>
+                        </table>
+                    `);
+                }
+                $('#articleHistoryContent tbody').append(rowsHtml);
+                this.renderLoadMore('#articleHistoryContent', page.nextCursor, (next) => this.loadArticleHistory(next));
             }, error: (err) => {
                 $('#articleHistoryContent').html(`
                     <div class="alert panel-alert-danger">Error loading article view history.</div>
@@ -622,6 +652,21 @@ class SearchStateMachine {
     }
 
    
+    renderLoadMore(container, nextCursor, loadPage) {
+        $(`${container} .load-more-history`).remove();
+        if (!nextCursor) return;
+
+        const button = $(`
+            <button class="btn panel-action-btn panel-action-primary load-more-history">Load more</button>
+        `);
+        button.on('click', () => {
+            button.prop('disabled', true);
+            loadPage(nextCursor);
+        });
+        $(container).append(button);
+    }
+
+   
     loadFavorites() {
         $.ajax({
             url: '/api/search/favorite',
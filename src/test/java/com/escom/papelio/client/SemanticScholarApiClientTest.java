@@ -0,0 +1,48 @@
+package com.escom.papelio.client;
+
+import com.escom.papelio.util.ApiRetryUtil;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SemanticScholarApiClientTest {
+
+    private SemanticScholarRateLimiter rateLimiter;
+    private CircuitBreaker circuitBreaker;
+    private SemanticScholarApiClient client;
+
+    @BeforeEach
+    void setUp() {
+        // One permit per second with the only burst permit already taken, so any call would have to wait
+        rateLimiter = new SemanticScholarRateLimiter(1, 1, 50, Duration.ofSeconds(10));
+        rateLimiter.reserve();
+        circuitBreaker = CircuitBreaker.ofDefaults("test");
+        client = new SemanticScholarApiClient(WebClient.create("http://localhost:1"),
+                new ApiRetryUtil(3, Duration.ofMillis(10), Duration.ofMillis(50)),
+                rateLimiter, circuitBreaker, Bulkhead.ofDefaults("test"));
+    }
+
+    @Test
+    void openBreakerShouldFailWithoutWaitingForRateLimitPermit() {
+        // Arrange
+        circuitBreaker.transitionToOpenState();
+        long start = System.nanoTime();
+
+        // Act & Assert
+        assertThrows(CallNotPermittedException.class, () -> client.getPaperById("paper123", "title"));
+        assertThrows(CallNotPermittedException.class,
+                () -> client.getPaperByIdAsync("paper123", "title").block());
+
+        long elapsed = System.nanoTime() - start;
+        assertTrue(elapsed < Duration.ofMillis(500).toNanos(), "Waited " + Duration.ofNanos(elapsed));
+        // No permits were spent: the next caller still waits about one refill interval, not three
+        assertTrue(rateLimiter.reserve() <= Duration.ofSeconds(1).toNanos());
+    }
+}
@@ -0,0 +1,72 @@
+package com.escom.papelio.client;
+
+import com.escom.papelio.exception.RateLimitExceededException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SemanticScholarRateLimiterTest {
+
+    @Test
+    void shouldGrantBurstPermitsWithoutWaiting() {
+        // Arrange
+        SemanticScholarRateLimiter limiter = new SemanticScholarRateLimiter(1, 3, 10, Duration.ofSeconds(10));
+
+        // Act & Assert
+        assertEquals(0, limiter.reserve());
+        assertEquals(0, limiter.reserve());
+        assertEquals(0, limiter.reserve());
+    }
+
+    @Test
+    void shouldQueueCallersOnceBucketIsEmpty() {
+        // Arrange
+        SemanticScholarRateLimiter limiter = new SemanticScholarRateLimiter(10, 1, 10, Duration.ofSeconds(10));
+        limiter.reserve();
+
+        // Act
+        long firstWait = limiter.reserve();
+        long secondWait = limiter.reserve();
+
+        // Assert - each queued caller waits roughly one more refill interval (100ms at 10 permits/s)
+        assertTrue(firstWait > 0 && firstWait <= Duration.ofMillis(100).toNanos());
+        assertTrue(secondWait > firstWait);
+    }
+
+    @Test
+    void shouldRejectWhenQueueIsFull() {
+        // Arrange
+        SemanticScholarRateLimiter limiter = new SemanticScholarRateLimiter(1, 1, 2, Duration.ofSeconds(10));
+        limiter.reserve();
+        limiter.reserve();
+        limiter.reserve();
+
+        // Act & Assert
+        assertThrows(RateLimitExceededException.class, limiter::reserve);
+    }
+
+    @Test
+    void shouldRejectWhenWaitExceedsMaximum() {
+        // Arrange
+        SemanticScholarRateLimiter limiter = new SemanticScholarRateLimiter(1, 1, 100, Duration.ofMillis(1500));
+        limiter.reserve();
+        limiter.reserve();
+
+        // Act & Assert - the third caller would wait about two seconds
+        assertThrows(RateLimitExceededException.class, limiter::reserve);
+    }
+
+    @Test
+    void shouldTakePermitOnSubscriptionOnly() {
+        // Arrange
+        SemanticScholarRateLimiter limiter = new SemanticScholarRateLimiter(1, 1, 0, Duration.ofSeconds(10));
+        Mono<String> limited = limiter.limit(Mono.just("result"));
+
+        // Act & Assert - building the Mono takes no permit, the first subscription does
+        assertEquals("result", limited.block());
+        assertThrows(RateLimitExceededException.class, limited::block);
+    }
+}
@@ -0,0 +1,56 @@
+package com.escom.papelio.config;
+
+import com.escom.papelio.dto.ArticleDTO;
+import com.escom.papelio.dto.SearchResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheEntryWeigherTest {
+
+    @Test
+    void shouldWeighArticleByItsContent() {
+        // Arrange
+        ArticleDTO withoutAbstract = article("paper1", null);
+        ArticleDTO withAbstract = article("paper1", "a".repeat(2000));
+
+        // Act & Assert
+        assertTrue(CacheEntryWeigher.weigh("paper1", withAbstract) - CacheEntryWeigher.weigh("paper1", withoutAbstract) >= 2000);
+    }
+
+    @Test
+    void shouldWeighSearchPageAsSumOfItsArticles() {
+        // Arrange
+        List<ArticleDTO> articles = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            articles.add(article("paper" + i, "a".repeat(1000)));
+        }
+        SearchResponseDTO page = new SearchResponseDTO(articles, 100, 0, 10, "machine learning");
+
+        // Act
+        int pageWeight = CacheEntryWeigher.weigh("machine learning_0_10", page);
+        int articleWeight = CacheEntryWeigher.weigh("paper0", articles.get(0));
+
+        // Assert
+        assertTrue(pageWeight > 100 * 1000);
+        assertTrue(pageWeight > 90 * articleWeight);
+    }
+
+    @Test
+    void shouldWeighNullValueAsKeyOnly() {
+        assertTrue(CacheEntryWeigher.weigh("paper1", null) > 0);
+    }
+
+    private static ArticleDTO article(String id, String abstract_) {
+        ArticleDTO article = new ArticleDTO();
+        article.setId(id);
+        article.setTitle("Title of " + id);
+        article.setAbstract_(abstract_);
+        article.setAuthors(List.of("Author One", "Author Two"));
+        article.setJournal("Journal");
+        return article;
+    }
+}
@@ -0,0 +1,102 @@
+package com.escom.papelio.config;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RefreshAheadCacheLoaderTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void shouldServeStaleValueWhileRefreshing() {
+        // Arrange
+        AtomicInteger reloads = new AtomicInteger();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        CaffeineCache cache = buildCache(key -> {
+            reloads.incrementAndGet();
+            return upstream;
+        });
+        cache.put("paper1", "stale");
+        advance(Duration.ofMinutes(2));
+
+        // Act
+        Object whileRefreshing = cache.retrieve("paper1").join();
+        Object concurrentRead = cache.retrieve("paper1").join();
+        upstream.complete("fresh");
+        Object afterRefresh = cache.retrieve("paper1").join();
+
+        // Assert
+        assertEquals("stale", ((Cache.ValueWrapper) whileRefreshing).get());
+        assertEquals("stale", ((Cache.ValueWrapper) concurrentRead).get());
+        assertEquals("fresh", ((Cache.ValueWrapper) afterRefresh).get());
+        assertEquals(1, reloads.get());
+    }
+
+    @Test
+    void shouldKeepStaleValueWhenRefreshFails() {
+        // Arrange
+        CaffeineCache cache = buildCache(key -> CompletableFuture.failedFuture(new RuntimeException("API call failed")));
+        cache.put("paper1", "stale");
+        advance(Duration.ofMinutes(2));
+
+        // Act
+        cache.retrieve("paper1").join();
+        Cache.ValueWrapper afterFailure = cache.get("paper1");
+
+        // Assert
+        assertNotNull(afterFailure);
+        assertEquals("stale", afterFailure.get());
+    }
+
+    @Test
+    void shouldDropStaleValueAfterTtl() {
+        // Arrange
+        CaffeineCache cache = buildCache(key -> CompletableFuture.failedFuture(new RuntimeException("API call failed")));
+        cache.put("paper1", "stale");
+        advance(Duration.ofMinutes(11));
+
+        // Act & Assert
+        assertNull(cache.retrieve("paper1"));
+        assertNull(cache.get("paper1"));
+    }
+
+    @Test
+    void shouldLeaveMissesToTheCacheableMethod() {
+        // Arrange
+        AtomicInteger reloads = new AtomicInteger();
+        CaffeineCache cache = buildCache(key -> {
+            reloads.incrementAndGet();
+            return CompletableFuture.completedFuture("fresh");
+        });
+
+        // Act & Assert
+        assertNull(cache.get("missing"));
+        assertNull(cache.retrieve("missing"));
+        assertEquals(0, reloads.get());
+    }
+
+    private CaffeineCache buildCache(Function<String, CompletableFuture<?>> reloader) {
+        AsyncCache<Object, Object> asyncCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .refreshAfterWrite(Duration.ofMinutes(1))
+                .executor(Runnable::run)
+                .ticker(nanos::get)
+                .buildAsync(new RefreshAheadCacheLoader<>(String.class, reloader));
+        return new CaffeineCache("articleDetails", asyncCache, true);
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+}
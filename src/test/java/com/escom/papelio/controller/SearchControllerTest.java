@@ -2,6 +2,7 @@ package com.escom.papelio.controller;
 
 import com.escom.papelio.dto.SearchRequestDTO;
 import com.escom.papelio.dto.SearchResponseDTO;
+import com.escom.papelio.security.CurrentUserResolver;
 import com.escom.papelio.service.ArticleService;
 import com.escom.papelio.service.SearchHistoryService;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +18,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.util.Collections;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -33,6 +35,9 @@ public class SearchControllerTest {
     @Mock
     private SearchHistoryService searchHistoryService;
 
+    @Mock
+    private CurrentUserResolver currentUserResolver;
+
     @Mock
     private Authentication authentication;
 
@@ -54,7 +59,7 @@ public class SearchControllerTest {
                 0,
                 "test query");
 
-        when(authentication.getName()).thenReturn("test@example.com");
+        when(currentUserResolver.resolveId(authentication)).thenReturn(1L);
     }
 
     @Test
@@ -88,7 +93,7 @@ public class SearchControllerTest {
                 .andExpect(model().attribute("results", searchResponseDTO));
 
         // Verify search history is saved
-        verify(searchHistoryService).saveSearchQuery(anyString(), anyString());
+        verify(searchHistoryService).saveSearchQuery(anyLong(), anyString());
     }
 
     @Test
@@ -1,11 +1,11 @@
 package com.escom.papelio.controller;
 
 import com.escom.papelio.dto.*;
+import com.escom.papelio.security.CurrentUserResolver;
 import com.escom.papelio.service.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
@@ -13,11 +13,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -39,14 +42,15 @@ public class SearchRestControllerTest {
     @Mock
     private ArticleFavoriteService articleFavoriteService;
 
+    @Mock
+    private CurrentUserResolver currentUserResolver;
+
     @Mock
     private Authentication authentication;
 
-    @InjectMocks
     private SearchRestController searchRestController;
 
     private SearchRequestDTO searchRequestDTO;
-    private RecommendationRequestDTO recommendationRequestDTO;
     private ArticleFavoriteRequestDTO articleFavoriteRequestDTO;
     private SearchResponseDTO searchResponseDTO;
 
@@ -54,11 +58,8 @@ public class SearchRestControllerTest {
     void setUp() {
         searchRequestDTO = new SearchRequestDTO();
         searchRequestDTO.setQuery("machine learning");
-        searchRequestDTO.setPage(1);
-        searchRequestDTO.setPage(10);
-
-        recommendationRequestDTO = new RecommendationRequestDTO();
-        recommendationRequestDTO.setPaperIds(Collections.singletonList("paper123"));
+        searchRequestDTO.setPage(0);
+        searchRequestDTO.setSize(10);
 
         articleFavoriteRequestDTO = new ArticleFavoriteRequestDTO();
         articleFavoriteRequestDTO.setArticleId("article123");
@@ -66,35 +67,59 @@ public class SearchRestControllerTest {
 
         searchResponseDTO = new SearchResponseDTO(Collections.emptyList(), 0, 1, 0, "query");
 
-        when(authentication.getName()).thenReturn("user@example.com");
+        // SemanticScholarService is also an ArticleService, so @InjectMocks cannot tell the two mocks apart
+        searchRestController = new SearchRestController(articleService, searchHistoryService,
+                articleViewHistoryService, semanticScholarService, articleFavoriteService, currentUserResolver);
+
+        lenient().when(currentUserResolver.resolveId(authentication)).thenReturn(1L);
     }
 
     @Test
     void basicSearchShouldReturnSearchResults() {
         // Arrange
-        when(articleService.searchArticles(any(SearchRequestDTO.class))).thenReturn(searchResponseDTO);
+        when(articleService.searchArticlesAsync(any(SearchRequestDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(searchResponseDTO));
+        when(articleFavoriteService.markFavoritesAsync(anyLong(), any(SearchResponseDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(searchResponseDTO));
 
         // Act
-        ResponseEntity<SearchResponseDTO> response = searchRestController.basicSearch(searchRequestDTO, authentication);
+        ResponseEntity<SearchResponseDTO> response = searchRestController.basicSearch(searchRequestDTO, authentication).join();
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        verify(searchHistoryService).saveSearchQuery(anyString(), anyString());
+        verify(searchHistoryService).saveSearchQuery(1L, "machine learning");
+        verify(articleFavoriteService).markFavoritesAsync(1L, searchResponseDTO);
     }
 
     @Test
     void getRecommendationsShouldReturnRecommendedArticles() {
         // Arrange
-        recommendationRequestDTO.setLimit(5); // Ensure the limit is set
-        when(semanticScholarService.getRecommendations(any(RecommendationRequestDTO.class))).thenReturn(searchResponseDTO);
+        when(articleViewHistoryService.getUserViewedArticleIds(1L, 20)).thenReturn(List.of("paper123"));
+        when(semanticScholarService.getRecommendationsAsync(any(RecommendationRequestDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(searchResponseDTO));
 
         // Act
-        ResponseEntity<SearchResponseDTO> response = searchRestController.getRecommendations(authentication);
+        ResponseEntity<SearchResponseDTO> response = searchRestController.getRecommendations(authentication).join();
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertNotNull(response.getBody());
+        assertSame(searchResponseDTO, response.getBody());
+        verify(semanticScholarService).getRecommendationsAsync(new RecommendationRequestDTO(List.of("paper123"), 20));
+    }
+
+    @Test
+    void getRecommendationsShouldReturnEmptyResultsWithoutViewHistory() {
+        // Arrange
+        when(articleViewHistoryService.getUserViewedArticleIds(1L, 20)).thenReturn(List.of());
+
+        // Act
+        ResponseEntity<SearchResponseDTO> response = searchRestController.getRecommendations(authentication).join();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().getArticles().isEmpty());
+        verifyNoInteractions(semanticScholarService);
     }
 
     @Test
@@ -102,38 +127,37 @@ public class SearchRestControllerTest {
         // Arrange
         ArticleDTO articleDTO = new ArticleDTO(); // Create a mock ArticleDTO object
         articleDTO.setTitle("Sample Article Title"); // Ensure the title is set
-        when(articleService.getArticleById(anyString())).thenReturn(Optional.of(articleDTO));
+        when(articleService.getArticleByIdAsync("article123")).thenReturn(CompletableFuture.completedFuture(articleDTO));
 
         // Act
         ResponseEntity<ArticleDTO> response = searchRestController.getArticleById(
-                "article123", anyString(), authentication);
+                "article123", "Sample Article Title", authentication).join();
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        verify(articleViewHistoryService).saveArticleView(anyString(), anyString(), anyString());
+        verify(articleViewHistoryService).saveArticleView(1L, "article123", "Sample Article Title");
     }
 
     @Test
     void addFavoriteShouldReturnSuccessWhenNewFavorite() {
         // Arrange
-        when(articleFavoriteService.saveArticleFavorite(anyString(), anyString(), anyString())).thenReturn(true);
+        when(articleFavoriteService.saveArticleFavorite(anyLong(), anyString(), anyString())).thenReturn(true);
 
         // Act
         ResponseEntity<Map<String, Object>> response = (ResponseEntity<Map<String, Object>>) searchRestController.addArticleToFavorites(
                 articleFavoriteRequestDTO, authentication);
 
         // Assert
-        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(true, response.getBody().get("success"));
         assertEquals("Article added to favorites", response.getBody().get("message"));
     }
 
     @Test
     void addFavoriteShouldReturnSuccessWhenAlreadyFavorite() {
         // Arrange
-        when(articleFavoriteService.saveArticleFavorite(anyString(), anyString(), anyString())).thenReturn(false);
+        when(articleFavoriteService.saveArticleFavorite(anyLong(), anyString(), anyString())).thenReturn(false);
 
         // Act
         ResponseEntity<Map<String, Object>> response = (ResponseEntity<Map<String, Object>>) searchRestController.addArticleToFavorites(
@@ -142,14 +166,13 @@ public class SearchRestControllerTest {
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(true, response.getBody().get("success"));
-        assertEquals("Article already in favorites", response.getBody().get("message"));
+        assertEquals("Article was already in favorites", response.getBody().get("message"));
     }
 
     @Test
     void removeFavoriteShouldReturnSuccessWhenRemoved() {
         // Arrange
-        when(articleFavoriteService.removeArticleFavorite(anyString(), anyString())).thenReturn(true);
+        when(articleFavoriteService.removeArticleFavorite(anyLong(), anyString())).thenReturn(true);
 
         // Act
         ResponseEntity<Map<String, Object>> response = (ResponseEntity<Map<String, Object>>) searchRestController.removeArticleFromFavorites(
@@ -158,30 +181,28 @@ public class SearchRestControllerTest {
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(true, response.getBody().get("success"));
         assertEquals("Article removed from favorites", response.getBody().get("message"));
     }
 
     @Test
-    void removeFavoriteShouldReturnSuccessWhenNotInFavorites() {
+    void removeFavoriteShouldReturnNotFoundWhenNotInFavorites() {
         // Arrange
-        when(articleFavoriteService.removeArticleFavorite(anyString(), anyString())).thenReturn(false);
+        when(articleFavoriteService.removeArticleFavorite(anyLong(), anyString())).thenReturn(false);
 
         // Act
         ResponseEntity<Map<String, Object>> response = (ResponseEntity<Map<String, Object>>) searchRestController.removeArticleFromFavorites(
                 "article123", authentication);
 
         // Assert
-        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(true, response.getBody().get("success"));
         assertEquals("Article was not in favorites", response.getBody().get("message"));
     }
 
     @Test
     void checkFavoriteShouldReturnCorrectStatus() {
         // Arrange
-        when(articleFavoriteService.isArticleFavorite(anyString(), anyString())).thenReturn(true);
+        when(articleFavoriteService.isArticleFavorite(anyLong(), anyString())).thenReturn(true);
 
         // Act
         ResponseEntity<Map<String, Boolean>> response = searchRestController.checkIfFavorite(
@@ -196,7 +217,7 @@ public class SearchRestControllerTest {
     @Test
     void getFavoritesShouldReturnUserFavorites() {
         // Arrange
-        when(articleFavoriteService.getUserFavoritesAsDTO(anyString())).thenReturn(searchResponseDTO);
+        when(articleFavoriteService.getUserFavoritesAsDTO(anyLong())).thenReturn(searchResponseDTO);
 
         // Act
         ResponseEntity<SearchResponseDTO> response = searchRestController.getUserFavorites(authentication);
@@ -204,6 +225,21 @@ public class SearchRestControllerTest {
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        verify(articleFavoriteService).getUserFavoritesAsDTO(anyString());
+        verify(articleFavoriteService).getUserFavoritesAsDTO(anyLong());
+    }
+
+    @Test
+    void checkFavoritesShouldReturnFavoritedSubset() {
+        // Arrange
+        ArticleBatchRequestDTO checkRequest = new ArticleBatchRequestDTO(List.of("article123", "article456"));
+        when(articleFavoriteService.getFavoriteArticleIds(1L, checkRequest.getIds()))
+                .thenReturn(Set.of("article456"));
+
+        // Act
+        ResponseEntity<Map<String, Set<String>>> response = searchRestController.checkFavorites(checkRequest, authentication);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Set.of("article456"), response.getBody().get("favoriteIds"));
     }
-}
\ No newline at end of file
+}
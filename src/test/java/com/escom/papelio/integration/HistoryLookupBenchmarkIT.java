@@ -0,0 +1,175 @@
+package com.escom.papelio.integration;
+
+import com.escom.papelio.repository.ArticleViewHistoryRepository;
+import com.escom.papelio.service.ArticleViewHistoryService;
+import com.escom.papelio.service.SearchHistoryService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark for per-user history lookups against a PostgreSQL schema built by the Flyway migrations.
+ * The history tables are grown in steps (by default 100K, 1M and 10M rows; override with
+ * {@code -Dbenchmark.history.sizes=...}) while the measured user always owns the same 500 rows.
+ * Rows are spread over the past year of monthly partitions. With the composite (user_id, date) indexes
+ * every lookup is a bounded index range scan, so the median latency at the largest size must stay close
+ * to the smallest one.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class HistoryLookupBenchmarkIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryLookupBenchmarkIT.class);
+
+    private static final String BENCH_DOMAIN = "@bench.test";
+    private static final String TARGET_USER = "target" + BENCH_DOMAIN;
+    private static final int TARGET_USER_ROWS = 500;
+    private static final int OTHER_USERS = 100_000;
+    private static final int SAMPLES = 200;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SearchHistoryService searchHistoryService;
+
+    @Autowired
+    private ArticleViewHistoryService articleViewHistoryService;
+
+    @Autowired
+    private ArticleViewHistoryRepository articleViewHistoryRepository;
+
+    @Test
+    void perUserLookupsShouldStayFlatAsTablesGrow() {
+        long[] sizes = Arrays.stream(System.getProperty("benchmark.history.sizes", "100000,1000000,10000000")
+                .split(",")).mapToLong(Long::parseLong).toArray();
+
+        createPastPartitions();
+        insertUsers();
+        Long targetUserId = jdbcTemplate.queryForObject("SELECT id FROM usuarios WHERE email = ?", Long.class, TARGET_USER);
+        insertTargetUserRows(targetUserId);
+
+        Map<Long, Map<String, Double>> medians = new LinkedHashMap<>();
+        long rows = 0;
+        for (long size : sizes) {
+            insertOtherUserRows(rows, size);
+            rows = size;
+            jdbcTemplate.execute("ANALYZE search_history");
+            jdbcTemplate.execute("ANALYZE article_view_history");
+
+            Map<String, Double> timings = new LinkedHashMap<>();
+            timings.put("search history page", medianMillis(() ->
+                    searchHistoryService.getSearchHistoryPage(targetUserId, null, 20)));
+            timings.put("article history page", medianMillis(() ->
+                    articleViewHistoryService.getArticleViewHistoryPage(targetUserId, null, 20)));
+            timings.put("recent distinct article IDs", medianMillis(() ->
+                    articleViewHistoryRepository.findRecentDistinctArticleIds(
+                            targetUserId, LocalDateTime.now().minusDays(90), Limit.of(20))));
+            medians.put(size, timings);
+
+            logger.info("History rows: {} -> median lookup times (ms): {}", size, timings);
+        }
+
+        assertIndexScan("SELECT id FROM search_history WHERE user_id = " + targetUserId + " " +
+                "ORDER BY search_date DESC, id DESC LIMIT 21");
+        assertIndexScan("SELECT id FROM article_view_history WHERE user_id = " + targetUserId + " " +
+                "ORDER BY view_date DESC, id DESC LIMIT 21");
+
+        Map<String, Double> smallest = medians.get(sizes[0]);
+        Map<String, Double> largest = medians.get(sizes[sizes.length - 1]);
+        smallest.forEach((lookup, baseline) -> {
+            double atLargest = largest.get(lookup);
+            // Allow noise, but a scan that grows with the table would be orders of magnitude slower
+            assertTrue(atLargest < Math.max(baseline * 3, baseline + 2),
+                    lookup + " grew from " + baseline + "ms to " + atLargest + "ms");
+        });
+    }
+
+    @AfterAll
+    void cleanUp() {
+        // History rows go with their users (ON DELETE CASCADE)
+        jdbcTemplate.update("DELETE FROM usuarios WHERE email LIKE ?", "%" + BENCH_DOMAIN);
+    }
+
+    // The migration only creates partitions from the oldest existing row on; seeded rows span the past year
+    private void createPastPartitions() {
+        YearMonth current = YearMonth.now();
+        for (String table : List.of("search_history", "article_view_history")) {
+            for (int i = 1; i <= 12; i++) {
+                YearMonth month = current.minusMonths(i);
+                jdbcTemplate.execute(String.format(
+                        "CREATE TABLE IF NOT EXISTS %s_y%04dm%02d PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                        table, month.getYear(), month.getMonthValue(), table,
+                        month.atDay(1), month.plusMonths(1).atDay(1)));
+            }
+        }
+    }
+
+    // History rows reference usuarios, so every benchmark user needs an account
+    private void insertUsers() {
+        jdbcTemplate.update("INSERT INTO usuarios (email, password, name, role) VALUES (?, 'x', 'Target', 'ROLE_USER')",
+                TARGET_USER);
+        jdbcTemplate.update("INSERT INTO usuarios (email, password, name, role) " +
+                "SELECT 'user' || g || '" + BENCH_DOMAIN + "', 'x', 'User ' || g, 'ROLE_USER' " +
+                "FROM generate_series(0, ? - 1) g", OTHER_USERS);
+    }
+
+    private void insertTargetUserRows(Long targetUserId) {
+        jdbcTemplate.update("INSERT INTO search_history (id, user_id, search_query, search_date) " +
+                "SELECT nextval('search_history_seq'), ?, 'query ' || g, now() - g * interval '1 minute' " +
+                "FROM generate_series(1, ?) g", targetUserId, TARGET_USER_ROWS);
+        jdbcTemplate.update("INSERT INTO article_view_history (id, title, user_id, article_id, view_date) " +
+                "SELECT nextval('article_view_history_seq'), 'Article ' || g, ?, 'paper-' || (g % 100), " +
+                "now() - g * interval '1 minute' FROM generate_series(1, ?) g", targetUserId, TARGET_USER_ROWS);
+    }
+
+    private void insertOtherUserRows(long from, long to) {
+        jdbcTemplate.update("INSERT INTO search_history (id, user_id, search_query, search_date) " +
+                "SELECT nextval('search_history_seq'), u.id, " +
+                "'query ' || (g % 5000), now() - (g % 525600) * interval '1 minute' " +
+                "FROM generate_series(?, ?) g " +
+                "JOIN usuarios u ON u.email = 'user' || (g % ?) || '" + BENCH_DOMAIN + "'", from + 1, to, OTHER_USERS);
+        jdbcTemplate.update("INSERT INTO article_view_history (id, title, user_id, article_id, view_date) " +
+                "SELECT nextval('article_view_history_seq'), 'Article ' || (g % 50000), u.id, " +
+                "'paper-' || (g % 50000), now() - (g % 525600) * interval '1 minute' " +
+                "FROM generate_series(?, ?) g " +
+                "JOIN usuarios u ON u.email = 'user' || (g % ?) || '" + BENCH_DOMAIN + "'", from + 1, to, OTHER_USERS);
+    }
+
+    private double medianMillis(Runnable lookup) {
+        // Warm up caches and the connection pool
+        for (int i = 0; i < 20; i++) {
+            lookup.run();
+        }
+        List<Long> samples = new ArrayList<>(SAMPLES);
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            lookup.run();
+            samples.add(System.nanoTime() - start);
+        }
+        samples.sort(Long::compare);
+        return samples.get(SAMPLES / 2) / 1_000_000.0;
+    }
+
+    private void assertIndexScan(String sql) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+        logger.info("Plan for {}:\n{}", sql, plan);
+        assertFalse(plan.contains("Seq Scan"), "Expected an index scan:\n" + plan);
+    }
+}
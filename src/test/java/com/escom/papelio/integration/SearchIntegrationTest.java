@@ -1,31 +1,46 @@
 package com.escom.papelio.integration;
 
+import com.escom.papelio.dto.SearchHistoryEntryDTO;
 import com.escom.papelio.dto.SearchRequestDTO;
+import com.escom.papelio.model.ArticleViewHistory;
 import com.escom.papelio.model.SearchHistory;
+import com.escom.papelio.repository.ArticleViewHistoryRepository;
 import com.escom.papelio.repository.SearchHistoryRepository;
+import com.escom.papelio.service.ArticleViewHistoryService;
+import com.escom.papelio.service.SearchHistoryService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureMockMvc
 @Transactional
+// Write history synchronously in the test transaction so it can be checked right after each request
+@TestPropertySource(properties = "app.history.write-behind.enabled=false")
 @Sql(scripts = "/sql/test-user.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
 public class SearchIntegrationTest {
 
@@ -38,6 +53,18 @@ public class SearchIntegrationTest {
     @Autowired
     private SearchHistoryRepository searchHistoryRepository;
 
+    @Autowired
+    private ArticleViewHistoryRepository articleViewHistoryRepository;
+
+    @Autowired
+    private SearchHistoryService searchHistoryService;
+
+    @Autowired
+    private ArticleViewHistoryService articleViewHistoryService;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     @WithMockUser(username = "test@example.com", roles = "USER")
     public void searchRequestShouldReturnResultsAndSaveSearchHistory() throws Exception {
@@ -47,17 +74,21 @@ public class SearchIntegrationTest {
         searchRequest.setPage(1);
         searchRequest.setSize(10); // Fixed: using setSize instead of setPageSize
 
-        // Perform search and verify response
-        mockMvc.perform(post("/api/search")
+        // Perform search and verify response (the endpoint completes asynchronously)
+        MvcResult asyncResult = mockMvc.perform(post("/api/search")
                 .with(csrf())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(searchRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.query").value("artificial intelligence"))
                 .andExpect(jsonPath("$.page").value(1));
 
         // Verify search history was saved
-        List<SearchHistory> searchHistories = searchHistoryRepository.findByUserEmailOrderBySearchDateDesc("test@example.com");
+        List<SearchHistoryEntryDTO> searchHistories = searchHistoryRepository.findPage(999L, Limit.of(20));
         boolean foundSearch = searchHistories.stream()
                 .anyMatch(history -> "artificial intelligence".equals(history.getSearchQuery())); // Fixed: using getSearchQuery instead of getQuery
         assertTrue(foundSearch, "Search history was not saved correctly");
@@ -125,4 +156,22 @@ public class SearchIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.data[?(@.id == '" + articleId + "')]").exists());
     }
+
+    @Test
+    public void bulkSaveShouldKeepSuppliedHistoryDates() {
+        // Arrange
+        LocalDateTime searchedAt = LocalDateTime.of(2024, 1, 15, 10, 30);
+        LocalDateTime viewedAt = LocalDateTime.of(2024, 2, 20, 8, 0);
+
+        // Act
+        searchHistoryService.saveSearchQueries(List.of(new SearchHistory(null, 999L, "imported query", searchedAt)));
+        articleViewHistoryService.saveArticleViews(
+                List.of(new ArticleViewHistory(null, "Imported Article", 999L, "imported-article", viewedAt)));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        assertEquals(searchedAt, searchHistoryRepository.findPage(999L, Limit.of(1)).get(0).getSearchDate());
+        assertEquals(viewedAt, articleViewHistoryRepository.findPage(999L, Limit.of(1)).get(0).getViewDate());
+    }
 }
@@ -0,0 +1,191 @@
+package com.escom.papelio.integration;
+
+import com.escom.papelio.papelioApplication;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.CookieManager;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the application's throughput and latency with and without spring.threads.virtual.enabled.
+ * Each run starts the application on a random port against a stubbed Semantic Scholar API that answers
+ * after a fixed delay, logs in, and sends a burst of requests to the article details page, which blocks
+ * its request thread on the upstream call. Rate limiting, the bulkhead and the connection pool are
+ * opened up so the request threads are the only limit. Needs the same PostgreSQL database as the
+ * other integration tests.
+ */
+public class VirtualThreadLoadIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadLoadIT.class);
+
+    private static final int CONCURRENT_REQUESTS = 1000;
+    private static final long UPSTREAM_LATENCY_MS = 200;
+    private static final Pattern CSRF_TOKEN = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    private final ExecutorService stubExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private HttpServer upstream;
+
+    @BeforeEach
+    void startUpstream() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("localhost", 0), CONCURRENT_REQUESTS);
+        upstream.createContext("/paper/", this::answerPaper);
+        upstream.setExecutor(stubExecutor);
+        upstream.start();
+    }
+
+    @AfterEach
+    void stopUpstream() {
+        upstream.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.MINUTES)
+    public void compareVirtualAndPlatformThreadLoad() throws Exception {
+        LoadResult platform = runLoad(false);
+        LoadResult virtual = runLoad(true);
+
+        logger.info("==========================================");
+        logger.info("THREAD MODEL COMPARISON: {} concurrent requests, {}ms upstream latency",
+                CONCURRENT_REQUESTS, UPSTREAM_LATENCY_MS);
+        platform.log("Platform threads");
+        virtual.log("Virtual threads");
+        logger.info("==========================================");
+
+        assertEquals(CONCURRENT_REQUESTS, platform.latencies().size(), "All platform-thread requests should succeed");
+        assertEquals(CONCURRENT_REQUESTS, virtual.latencies().size(), "All virtual-thread requests should succeed");
+        // 200 Tomcat workers serve 1000 blocked requests in about five latency rounds; virtual threads in about one
+        assertTrue(virtual.percentile(95) < platform.percentile(95),
+                "Virtual threads should keep the 95th percentile below Tomcat's platform thread pool");
+    }
+
+    private LoadResult runLoad(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(papelioApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--api.semantic-scholar.base-url=http://localhost:" + upstream.getAddress().getPort(),
+                "--api.semantic-scholar.retry.max-retries=0",
+                "--api.semantic-scholar.rate-limit.permits-per-second=100000",
+                "--api.semantic-scholar.rate-limit.burst=100000",
+                "--api.semantic-scholar.rate-limit.max-queue=" + CONCURRENT_REQUESTS,
+                "--resilience4j.bulkhead.instances.semanticScholar.max-concurrent-calls=" + CONCURRENT_REQUESTS,
+                "--api.semantic-scholar.pool.max-connections=" + CONCURRENT_REQUESTS,
+                "--api.semantic-scholar.pool.pending-acquire-max-count=" + CONCURRENT_REQUESTS)) {
+            String baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder()
+                    .cookieHandler(new CookieManager())
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            logIn(client, baseUrl);
+
+            // Distinct IDs so neither the article cache nor request coalescing absorbs the load
+            String run = virtualThreads ? "virtual" : "platform";
+            List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+            long start = System.nanoTime();
+            List<CompletableFuture<Void>> requests = new ArrayList<>(CONCURRENT_REQUESTS);
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/search/article/" + run + "-" + i))
+                        .timeout(Duration.ofMinutes(1))
+                        .build();
+                long sentAt = System.nanoTime();
+                requests.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .thenAccept(response -> {
+                            if (response.statusCode() == 200) {
+                                latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sentAt));
+                            } else {
+                                logger.warn("Request {} returned {}", response.uri(), response.statusCode());
+                            }
+                        }));
+            }
+            CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new)).join();
+            return new LoadResult(latencies, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Logs in as the default administrator; the session cookie is kept by the client's cookie manager
+     */
+    private void logIn(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        String loginPage = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login")).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        Matcher csrf = CSRF_TOKEN.matcher(loginPage);
+        assertTrue(csrf.find(), "Login page should contain a CSRF token");
+
+        String form = "username=" + URLEncoder.encode("admin@example.com", StandardCharsets.UTF_8) +
+                "&password=admin123&_csrf=" + URLEncoder.encode(csrf.group(1), StandardCharsets.UTF_8);
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        assertEquals("/dashboard", URI.create(response.headers().firstValue("Location").orElse("")).getPath(),
+                "Login should redirect to the dashboard");
+    }
+
+    private void answerPaper(HttpExchange exchange) throws IOException {
+        try {
+            Thread.sleep(UPSTREAM_LATENCY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String id = exchange.getRequestURI().getPath().substring("/paper/".length());
+        byte[] body = ("{\"paperId\":\"" + id + "\",\"title\":\"Paper " + id + "\",\"abstract\":\"Stub\"," +
+                "\"authors\":[],\"year\":2024,\"citationCount\":0}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private record LoadResult(List<Long> latencies, long elapsedMillis) {
+
+        long percentile(int percentile) {
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+            return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+        }
+
+        void log(String mode) {
+            if (latencies.isEmpty()) {
+                logger.info("{}: no successful requests", mode);
+                return;
+            }
+            double throughput = latencies.size() * 1000.0 / Math.max(1, elapsedMillis);
+            logger.info("{}: {} requests in {}ms ({} req/s) - 50th: {}ms, 95th: {}ms, 99th: {}ms, Max: {}ms",
+                    mode, latencies.size(), elapsedMillis, String.format("%.1f", throughput),
+                    percentile(50), percentile(95), percentile(99), percentile(100));
+        }
+    }
+}
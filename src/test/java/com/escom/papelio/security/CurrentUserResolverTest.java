@@ -0,0 +1,67 @@
+package com.escom.papelio.security;
+
+import com.escom.papelio.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CurrentUserResolverTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private CurrentUserResolver currentUserResolver;
+
+    @Test
+    void resolveIdShouldUseIdCarriedByPrincipal() {
+        // Arrange
+        AuthenticatedUser principal = new AuthenticatedUser(42L, "test@example.com", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        Authentication authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+
+        // Act
+        Long userId = currentUserResolver.resolveId(authentication);
+
+        // Assert
+        assertEquals(42L, userId);
+        verify(userRepository, never()).findIdByEmail(anyString());
+    }
+
+    @Test
+    void resolveIdShouldLookUpOtherPrincipalsByEmail() {
+        // Arrange
+        Authentication authentication = new UsernamePasswordAuthenticationToken("test@example.com", null);
+        when(userRepository.findIdByEmail("test@example.com")).thenReturn(Optional.of(7L));
+
+        // Act
+        Long userId = currentUserResolver.resolveId(authentication);
+
+        // Assert
+        assertEquals(7L, userId);
+    }
+
+    @Test
+    void resolveIdShouldThrowWhenUserDoesNotExist() {
+        // Arrange
+        Authentication authentication = new UsernamePasswordAuthenticationToken("missing@example.com", null);
+        when(userRepository.findIdByEmail("missing@example.com")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class, () -> currentUserResolver.resolveId(authentication));
+    }
+}
@@ -0,0 +1,62 @@
+package com.escom.papelio.security;
+
+import com.escom.papelio.model.User;
+import com.escom.papelio.repository.UserRepository;
+import com.escom.papelio.service.UserAccountCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private UserAccountCache userAccountCache = new UserAccountCache(100, Duration.ofMinutes(10));
+
+    @InjectMocks
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Test
+    void loadUserByUsernameShouldReadRepositoryOnceForRepeatedLogins() {
+        // Arrange
+        User user = new User(1L, "test@example.com", "encodedPassword", "testuser", "ROLE_USER");
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+
+        // Act
+        UserDetails first = customUserDetailsService.loadUserByUsername("test@example.com");
+        ((AuthenticatedUser) first).eraseCredentials();
+        UserDetails second = customUserDetailsService.loadUserByUsername("test@example.com");
+
+        // Assert
+        assertEquals(1L, ((AuthenticatedUser) second).getId());
+        assertEquals("encodedPassword", second.getPassword());
+        verify(userRepository, times(1)).findByEmail("test@example.com");
+    }
+
+    @Test
+    void loadUserByUsernameShouldNotCacheUnknownEmails() {
+        // Arrange
+        when(userRepository.findByEmail("missing@example.com")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class,
+                () -> customUserDetailsService.loadUserByUsername("missing@example.com"));
+        assertThrows(UsernameNotFoundException.class,
+                () -> customUserDetailsService.loadUserByUsername("missing@example.com"));
+        verify(userRepository, times(2)).findByEmail("missing@example.com");
+    }
+}
@@ -10,9 +10,11 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -32,6 +34,9 @@ public class AdminServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Spy
+    private UserAccountCache userAccountCache = new UserAccountCache(100, Duration.ofMinutes(10));
+
     @InjectMocks
     private AdminService adminService;
 
@@ -282,6 +287,19 @@ public class AdminServiceTest {
         verify(userRepository).deleteById(1L);
     }
 
+    @Test
+    void shouldEvictCachedUserWhenDeleted() {
+        // Arrange
+        userAccountCache.get("test@example.com", email -> Optional.of(testUser));
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        // Act
+        adminService.eliminarUsuario(1L);
+
+        // Assert
+        assertTrue(userAccountCache.get("test@example.com", email -> Optional.empty()).isEmpty());
+    }
+
     @Test
     void shouldThrowExceptionWhenDeletingNonExistentUser() {
         // Arrange
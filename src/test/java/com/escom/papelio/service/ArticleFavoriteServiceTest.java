@@ -1,5 +1,6 @@
 package com.escom.papelio.service;
 
+import com.escom.papelio.dto.ArticleDTO;
 import com.escom.papelio.dto.SearchResponseDTO;
 import com.escom.papelio.model.ArticleFavorite;
 import com.escom.papelio.repository.ArticleFavoriteRepository;
@@ -8,14 +9,22 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,10 +33,16 @@ public class ArticleFavoriteServiceTest {
     @Mock
     private ArticleFavoriteRepository articleFavoriteRepository;
 
+    @Mock
+    private ArticleHydrationService articleHydrationService;
+
+    @Spy
+    private UserFavoritesCache userFavoritesCache = new UserFavoritesCache(100, Duration.ofMinutes(30));
+
     @InjectMocks
     private ArticleFavoriteService articleFavoriteService;
 
-    private final String USER_EMAIL = "test@example.com";
+    private final Long USER_ID = 1L;
     private final String ARTICLE_ID = "1234567890";
     private final String ARTICLE_TITLE = "Test Article Title";
 
@@ -39,71 +54,103 @@ public class ArticleFavoriteServiceTest {
     @Test
     void shouldSaveArticleFavoriteSuccessfully() {
         // Arrange
-        when(articleFavoriteRepository.existsByUserEmailAndArticleId(USER_EMAIL, ARTICLE_ID))
-                .thenReturn(false);
-        when(articleFavoriteRepository.save(any(ArticleFavorite.class))).thenReturn(new ArticleFavorite());
+        when(articleFavoriteRepository.insertIfAbsent(eq(USER_ID), eq(ARTICLE_ID), eq(ARTICLE_TITLE), any(LocalDateTime.class)))
+                .thenReturn(1);
 
         // Act
-        boolean result = articleFavoriteService.saveArticleFavorite(USER_EMAIL, ARTICLE_ID, ARTICLE_TITLE);
+        boolean result = articleFavoriteService.saveArticleFavorite(USER_ID, ARTICLE_ID, ARTICLE_TITLE);
 
         // Assert
         assertTrue(result);
-        verify(articleFavoriteRepository).save(any(ArticleFavorite.class));
+        verify(articleFavoriteRepository).insertIfAbsent(eq(USER_ID), eq(ARTICLE_ID), eq(ARTICLE_TITLE), any(LocalDateTime.class));
+        verify(articleFavoriteRepository, never()).existsByUserIdAndArticleId(anyLong(), anyString());
     }
 
     @Test
     void shouldNotSaveArticleFavoriteWhenAlreadyExists() {
         // Arrange
-        when(articleFavoriteRepository.existsByUserEmailAndArticleId(USER_EMAIL, ARTICLE_ID))
-                .thenReturn(true);
+        when(articleFavoriteRepository.insertIfAbsent(eq(USER_ID), eq(ARTICLE_ID), eq(ARTICLE_TITLE), any(LocalDateTime.class)))
+                .thenReturn(0);
 
         // Act
-        boolean result = articleFavoriteService.saveArticleFavorite(USER_EMAIL, ARTICLE_ID, ARTICLE_TITLE);
+        boolean result = articleFavoriteService.saveArticleFavorite(USER_ID, ARTICLE_ID, ARTICLE_TITLE);
 
         // Assert
         assertFalse(result);
-        verify(articleFavoriteRepository, never()).save(any(ArticleFavorite.class));
+    }
+
+    @Test
+    void shouldNotCacheFavoriteWhenInsertFailsForOtherReasons() {
+        // Arrange
+        when(articleFavoriteRepository.findArticleIdsByUserId(USER_ID)).thenReturn(List.of());
+        articleFavoriteService.isArticleFavorite(USER_ID, ARTICLE_ID);
+        when(articleFavoriteRepository.insertIfAbsent(eq(USER_ID), eq(ARTICLE_ID), anyString(), any(LocalDateTime.class)))
+                .thenThrow(new DataIntegrityViolationException("value too long for type character varying(255)"));
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class,
+                () -> articleFavoriteService.saveArticleFavorite(USER_ID, ARTICLE_ID, "x".repeat(300)));
+        assertFalse(articleFavoriteService.isArticleFavorite(USER_ID, ARTICLE_ID));
+        verify(userFavoritesCache, never()).add(anyLong(), anyString());
     }
 
     @Test
     void shouldRemoveArticleFavoriteSuccessfully() {
         // Arrange
-        when(articleFavoriteRepository.existsByUserEmailAndArticleId(USER_EMAIL, ARTICLE_ID))
-                .thenReturn(true);
+        when(articleFavoriteRepository.deleteFavorite(USER_ID, ARTICLE_ID)).thenReturn(1);
 
         // Act
-        boolean result = articleFavoriteService.removeArticleFavorite(USER_EMAIL, ARTICLE_ID);
+        boolean result = articleFavoriteService.removeArticleFavorite(USER_ID, ARTICLE_ID);
 
         // Assert
         assertTrue(result);
-        verify(articleFavoriteRepository).deleteByUserEmailAndArticleId(USER_EMAIL, ARTICLE_ID);
+        verify(articleFavoriteRepository).deleteFavorite(USER_ID, ARTICLE_ID);
     }
 
     @Test
     void shouldNotRemoveArticleFavoriteWhenNotExists() {
         // Arrange
-        when(articleFavoriteRepository.existsByUserEmailAndArticleId(USER_EMAIL, ARTICLE_ID))
-                .thenReturn(false);
+        when(articleFavoriteRepository.deleteFavorite(USER_ID, ARTICLE_ID)).thenReturn(0);
 
         // Act
-        boolean result = articleFavoriteService.removeArticleFavorite(USER_EMAIL, ARTICLE_ID);
+        boolean result = articleFavoriteService.removeArticleFavorite(USER_ID, ARTICLE_ID);
 
         // Assert
         assertFalse(result);
-        verify(articleFavoriteRepository, never()).deleteByUserEmailAndArticleId(anyString(), anyString());
     }
 
     @Test
     void shouldCheckIfArticleIsFavorite() {
         // Arrange
-        when(articleFavoriteRepository.existsByUserEmailAndArticleId(USER_EMAIL, ARTICLE_ID))
-                .thenReturn(true);
+        when(articleFavoriteRepository.findArticleIdsByUserId(USER_ID)).thenReturn(List.of(ARTICLE_ID));
 
         // Act
-        boolean result = articleFavoriteService.isArticleFavorite(USER_EMAIL, ARTICLE_ID);
+        boolean result = articleFavoriteService.isArticleFavorite(USER_ID, ARTICLE_ID);
+        boolean other = articleFavoriteService.isArticleFavorite(USER_ID, "9876543210");
 
         // Assert
         assertTrue(result);
+        assertFalse(other);
+        verify(articleFavoriteRepository, times(1)).findArticleIdsByUserId(USER_ID);
+    }
+
+    @Test
+    void shouldKeepLoadedFavoritesInSyncWithWrites() {
+        // Arrange
+        when(articleFavoriteRepository.findArticleIdsByUserId(USER_ID)).thenReturn(List.of(ARTICLE_ID));
+        when(articleFavoriteRepository.insertIfAbsent(eq(USER_ID), eq("9876543210"), anyString(), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(articleFavoriteRepository.deleteFavorite(USER_ID, ARTICLE_ID)).thenReturn(1);
+        articleFavoriteService.isArticleFavorite(USER_ID, ARTICLE_ID);
+
+        // Act
+        articleFavoriteService.saveArticleFavorite(USER_ID, "9876543210", "Another Article");
+        articleFavoriteService.removeArticleFavorite(USER_ID, ARTICLE_ID);
+
+        // Assert
+        assertTrue(articleFavoriteService.isArticleFavorite(USER_ID, "9876543210"));
+        assertFalse(articleFavoriteService.isArticleFavorite(USER_ID, ARTICLE_ID));
+        verify(articleFavoriteRepository, times(1)).findArticleIdsByUserId(USER_ID);
     }
 
     @Test
@@ -112,22 +159,23 @@ public class ArticleFavoriteServiceTest {
         ArticleFavorite favorite1 = new ArticleFavorite();
         favorite1.setArticleId(ARTICLE_ID);
         favorite1.setTitle(ARTICLE_TITLE);
-        favorite1.setUserEmail(USER_EMAIL);
+        favorite1.setUserId(USER_ID);
         favorite1.setFavoriteDate(LocalDateTime.now());
 
         ArticleFavorite favorite2 = new ArticleFavorite();
         favorite2.setArticleId("9876543210");
         favorite2.setTitle("Another Article");
-        favorite2.setUserEmail(USER_EMAIL);
+        favorite2.setUserId(USER_ID);
         favorite2.setFavoriteDate(LocalDateTime.now().minusDays(1));
 
         List<ArticleFavorite> favorites = Arrays.asList(favorite1, favorite2);
 
-        when(articleFavoriteRepository.findByUserEmailOrderByFavoriteDateDesc(USER_EMAIL))
+        when(articleFavoriteRepository.findByUserIdOrderByFavoriteDateDesc(USER_ID))
                 .thenReturn(favorites);
+        when(articleHydrationService.hydrate(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
-        SearchResponseDTO result = articleFavoriteService.getUserFavoritesAsDTO(USER_EMAIL);
+        SearchResponseDTO result = articleFavoriteService.getUserFavoritesAsDTO(USER_ID);
 
         // Assert
         assertNotNull(result);
@@ -138,4 +186,38 @@ public class ArticleFavoriteServiceTest {
         assertEquals("9876543210", result.getArticles().get(1).getId());
         assertEquals("Another Article", result.getArticles().get(1).getTitle());
     }
+
+    @Test
+    void shouldReturnFavoritedSubsetFromLoadedSet() {
+        // Arrange
+        List<String> articleIds = List.of(ARTICLE_ID, "9876543210");
+        when(articleFavoriteRepository.findArticleIdsByUserId(USER_ID)).thenReturn(List.of(ARTICLE_ID, "5555555555"));
+
+        // Act
+        Set<String> result = articleFavoriteService.getFavoriteArticleIds(USER_ID, articleIds);
+
+        // Assert
+        assertEquals(Set.of(ARTICLE_ID), result);
+        verify(articleFavoriteRepository, never()).existsByUserIdAndArticleId(anyLong(), anyString());
+    }
+
+    @Test
+    void shouldMarkFavoritesOnCopiesOfSearchResults() {
+        // Arrange
+        ArticleDTO favorite = new ArticleDTO();
+        favorite.setId(ARTICLE_ID);
+        ArticleDTO other = new ArticleDTO();
+        other.setId("9876543210");
+        SearchResponseDTO results = new SearchResponseDTO(List.of(favorite, other), 2, 0, 1, "query");
+        when(articleFavoriteRepository.findArticleIdsByUserId(USER_ID)).thenReturn(List.of(ARTICLE_ID));
+
+        // Act
+        SearchResponseDTO marked = articleFavoriteService.markFavorites(USER_ID, results);
+
+        // Assert
+        assertTrue(marked.getArticles().get(0).getFavorite());
+        assertFalse(marked.getArticles().get(1).getFavorite());
+        assertNull(favorite.getFavorite());
+        assertEquals(2, marked.getTotalResults());
+    }
 }
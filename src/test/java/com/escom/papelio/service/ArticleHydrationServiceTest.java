@@ -0,0 +1,72 @@
+package com.escom.papelio.service;
+
+import com.escom.papelio.dto.ArticleDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ArticleHydrationServiceTest {
+
+    @Mock
+    private ArticleService articleService;
+
+    @InjectMocks
+    private ArticleHydrationService articleHydrationService;
+
+    @Test
+    void shouldReplaceStubsWithFullArticlesInOneLookup() {
+        // Arrange
+        ArticleDTO full = stub("paper1", "Full Title");
+        full.setAuthors(List.of("Author One"));
+        full.setCitationCount(42);
+        when(articleService.getArticlesByIds(List.of("paper1", "paper2"))).thenReturn(List.of(full));
+
+        // Act
+        List<ArticleDTO> result = articleHydrationService.hydrate(List.of(stub("paper1", "Stored Title"), stub("paper2", "Other")));
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(42, result.get(0).getCitationCount());
+        assertEquals("Other", result.get(1).getTitle());
+        verify(articleService, times(1)).getArticlesByIds(anyList());
+    }
+
+    @Test
+    void shouldReturnStubsWhenLookupFails() {
+        // Arrange
+        List<ArticleDTO> stubs = List.of(stub("paper1", "Stored Title"));
+        when(articleService.getArticlesByIds(anyList())).thenThrow(new RuntimeException("API call failed"));
+
+        // Act
+        List<ArticleDTO> result = articleHydrationService.hydrate(stubs);
+
+        // Assert
+        assertEquals(stubs, result);
+    }
+
+    @Test
+    void shouldSkipLookupForEmptyList() {
+        // Act
+        List<ArticleDTO> result = articleHydrationService.hydrate(List.of());
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(articleService);
+    }
+
+    private static ArticleDTO stub(String id, String title) {
+        ArticleDTO article = new ArticleDTO();
+        article.setId(id);
+        article.setTitle(title);
+        return article;
+    }
+}
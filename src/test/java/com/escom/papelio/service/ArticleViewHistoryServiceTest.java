@@ -1,9 +1,13 @@
 package com.escom.papelio.service;
 
 import com.escom.papelio.dto.ArticleDTO;
+import com.escom.papelio.dto.ArticleViewEntryDTO;
+import com.escom.papelio.dto.HistoryPageDTO;
 import com.escom.papelio.dto.SearchResponseDTO;
+import com.escom.papelio.dto.TrendingWindow;
 import com.escom.papelio.model.ArticleViewHistory;
 import com.escom.papelio.repository.ArticleViewHistoryRepository;
+import com.escom.papelio.util.HistoryCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,14 +15,23 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -28,13 +41,28 @@ public class ArticleViewHistoryServiceTest {
     @Mock
     private ArticleViewHistoryRepository articleViewHistoryRepository;
 
+    @Mock
+    private ArticleHydrationService articleHydrationService;
+
+    @Mock
+    private HistoryWriter historyWriter;
+
+    @Mock
+    private PopularityCounterService popularityCounterService;
+
+    @Mock
+    private TrendingService trendingService;
+
+    @Spy
+    private RecentViewsCache recentViewsCache = new RecentViewsCache(100, Duration.ofMinutes(30));
+
     @InjectMocks
     private ArticleViewHistoryService articleViewHistoryService;
 
     @Captor
     private ArgumentCaptor<ArticleViewHistory> viewHistoryCaptor;
 
-    private final String TEST_EMAIL = "test@example.com";
+    private final Long TEST_USER_ID = 1L;
     private final String TEST_ARTICLE_ID = "12345";
     private final String TEST_TITLE = "Test Article Title";
     private List<ArticleViewHistory> viewHistoryList;
@@ -45,14 +73,14 @@ public class ArticleViewHistoryServiceTest {
         // Set up test data
         ArticleViewHistory history1 = new ArticleViewHistory();
         history1.setId(1L);
-        history1.setUserEmail(TEST_EMAIL);
+        history1.setUserId(TEST_USER_ID);
         history1.setArticleId(TEST_ARTICLE_ID);
         history1.setTitle(TEST_TITLE);
         history1.setViewDate(LocalDateTime.now().minusDays(1));
 
         ArticleViewHistory history2 = new ArticleViewHistory();
         history2.setId(2L);
-        history2.setUserEmail(TEST_EMAIL);
+        history2.setUserId(TEST_USER_ID);
         history2.setArticleId("67890");
         history2.setTitle("Another Article");
         history2.setViewDate(LocalDateTime.now().minusHours(2));
@@ -69,37 +97,73 @@ public class ArticleViewHistoryServiceTest {
     @Test
     void shouldSaveArticleViewSuccessfully() {
         // Act
-        articleViewHistoryService.saveArticleView(TEST_EMAIL, TEST_ARTICLE_ID, TEST_TITLE);
+        articleViewHistoryService.saveArticleView(TEST_USER_ID, TEST_ARTICLE_ID, TEST_TITLE);
 
         // Assert
-        verify(articleViewHistoryRepository).save(viewHistoryCaptor.capture());
+        verify(historyWriter).enqueue(viewHistoryCaptor.capture());
+        verify(trendingService).recordView(eq(TEST_ARTICLE_ID), eq(TEST_TITLE), any(LocalDateTime.class));
+        verify(articleViewHistoryRepository, never()).save(any());
         ArticleViewHistory savedHistory = viewHistoryCaptor.getValue();
 
-        assertEquals(TEST_EMAIL, savedHistory.getUserEmail());
+        assertEquals(TEST_USER_ID, savedHistory.getUserId());
         assertEquals(TEST_ARTICLE_ID, savedHistory.getArticleId());
         assertEquals(TEST_TITLE, savedHistory.getTitle());
         assertNotNull(savedHistory.getViewDate());
     }
 
     @Test
-    void shouldRetrieveUserArticleViewHistory() {
+    void shouldSaveArticleViewsInBulk() {
         // Arrange
-        when(articleViewHistoryRepository.findByUserEmailOrderByViewDateDesc(TEST_EMAIL))
-                .thenReturn(viewHistoryList);
+        when(articleViewHistoryRepository.saveAll(viewHistoryList)).thenReturn(viewHistoryList);
 
         // Act
-        List<ArticleViewHistory> result = articleViewHistoryService.getUserArticleViewHistory(TEST_EMAIL);
+        List<ArticleViewHistory> result = articleViewHistoryService.saveArticleViews(viewHistoryList);
 
         // Assert
         assertEquals(2, result.size());
-        assertEquals(viewHistoryList, result);
-        verify(articleViewHistoryRepository).findByUserEmailOrderByViewDateDesc(TEST_EMAIL);
+        verify(articleViewHistoryRepository).saveAll(viewHistoryList);
+        verify(popularityCounterService).recordViews(viewHistoryList);
+    }
+
+    @Test
+    void shouldReturnArticleViewHistoryPage() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        List<ArticleViewEntryDTO> rows = Arrays.asList(
+                new ArticleViewEntryDTO(2L, "67890", "Another Article", now),
+                new ArticleViewEntryDTO(1L, TEST_ARTICLE_ID, TEST_TITLE, now.minusHours(1))
+        );
+        when(articleViewHistoryRepository.findPage(TEST_USER_ID, Limit.of(2))).thenReturn(rows);
+
+        // Act
+        HistoryPageDTO<ArticleViewEntryDTO> result = articleViewHistoryService.getArticleViewHistoryPage(TEST_USER_ID, null, 1);
+
+        // Assert
+        assertEquals(1, result.getItems().size());
+        assertEquals("67890", result.getItems().get(0).getArticleId());
+        assertEquals(new HistoryCursor(now, 2L), HistoryCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void shouldContinueArticleViewHistoryAfterCursor() {
+        // Arrange
+        LocalDateTime date = LocalDateTime.of(2025, 1, 1, 12, 0);
+        List<ArticleViewEntryDTO> rows = List.of(new ArticleViewEntryDTO(1L, TEST_ARTICLE_ID, TEST_TITLE, date));
+        when(articleViewHistoryRepository.findPageAfter(TEST_USER_ID, date, 2L, Limit.of(21))).thenReturn(rows);
+
+        // Act
+        HistoryPageDTO<ArticleViewEntryDTO> result = articleViewHistoryService.getArticleViewHistoryPage(
+                TEST_USER_ID, new HistoryCursor(date, 2L).encode(), 20);
+
+        // Assert
+        assertEquals(rows, result.getItems());
+        assertNull(result.getNextCursor());
     }
 
     @Test
     void shouldRetrieveMostViewedArticles() {
         // Arrange
-        when(articleViewHistoryRepository.findMostViewedArticles()).thenReturn(mostViewedArticles);
+        when(popularityCounterService.getMostViewedArticles()).thenReturn(mostViewedArticles);
 
         // Act
         List<Object[]> result = articleViewHistoryService.getMostViewedArticles();
@@ -107,13 +171,14 @@ public class ArticleViewHistoryServiceTest {
         // Assert
         assertEquals(2, result.size());
         assertEquals(mostViewedArticles, result);
-        verify(articleViewHistoryRepository).findMostViewedArticles();
+        verify(popularityCounterService).getMostViewedArticles();
     }
 
     @Test
     void shouldRetrieveMostViewedArticlesAsDTO() {
         // Arrange
-        when(articleViewHistoryRepository.findMostViewedArticles()).thenReturn(mostViewedArticles);
+        when(popularityCounterService.getMostViewedArticles()).thenReturn(mostViewedArticles);
+        when(articleHydrationService.hydrate(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
         SearchResponseDTO result = articleViewHistoryService.getMostViewedArticlesAsDTO();
@@ -131,14 +196,32 @@ public class ArticleViewHistoryServiceTest {
         assertEquals(TEST_ARTICLE_ID, firstArticle.getId());
     }
 
+    @Test
+    void shouldRetrieveTrendingArticlesAsDTO() {
+        // Arrange
+        ArticleDTO stub = new ArticleDTO();
+        stub.setId(TEST_ARTICLE_ID);
+        stub.setTitle(TEST_TITLE);
+        when(trendingService.getTrendingArticles(TrendingWindow.DAY, 10)).thenReturn(List.of(stub));
+        when(articleHydrationService.hydrate(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        SearchResponseDTO result = articleViewHistoryService.getTrendingArticlesAsDTO(TrendingWindow.DAY);
+
+        // Assert
+        assertEquals(1, result.getArticles().size());
+        assertEquals(TEST_ARTICLE_ID, result.getArticles().get(0).getId());
+        assertEquals("trending-day", result.getQuery());
+    }
+
     @Test
     void shouldRetrieveUserViewedArticleIds() {
         // Arrange
-        when(articleViewHistoryRepository.findByUserEmailOrderByViewDateDesc(TEST_EMAIL))
-                .thenReturn(viewHistoryList);
+        when(articleViewHistoryRepository.findRecentDistinctArticleIds(eq(TEST_USER_ID), any(LocalDateTime.class), eq(Limit.of(10))))
+                .thenReturn(List.of("67890", TEST_ARTICLE_ID));
 
         // Act
-        List<String> result = articleViewHistoryService.getUserViewedArticleIds(TEST_EMAIL, 10);
+        List<String> result = articleViewHistoryService.getUserViewedArticleIds(TEST_USER_ID, 10);
 
         // Assert
         assertEquals(2, result.size());
@@ -147,16 +230,36 @@ public class ArticleViewHistoryServiceTest {
     }
 
     @Test
-    void shouldLimitReturnedUserViewedArticleIds() {
+    void shouldServeViewedArticleIdsFromCacheAndApplyNewViews() {
+        // Arrange
+        when(articleViewHistoryRepository.findRecentDistinctArticleIds(eq(TEST_USER_ID), any(LocalDateTime.class), eq(Limit.of(2))))
+                .thenReturn(List.of("67890", TEST_ARTICLE_ID));
+        articleViewHistoryService.getUserViewedArticleIds(TEST_USER_ID, 2);
+
+        // Act
+        articleViewHistoryService.saveArticleView(TEST_USER_ID, "11111", "New Article");
+        List<String> result = articleViewHistoryService.getUserViewedArticleIds(TEST_USER_ID, 1);
+
+        // Assert
+        assertEquals(List.of("11111"), result);
+        assertEquals(List.of("11111", "67890"), articleViewHistoryService.getUserViewedArticleIds(TEST_USER_ID, 2));
+        verify(articleViewHistoryRepository, times(1)).findRecentDistinctArticleIds(any(), any(), any());
+    }
+
+    @Test
+    void shouldKeepViewRecordedBeforeFirstLoad() {
         // Arrange
-        when(articleViewHistoryRepository.findByUserEmailOrderByViewDateDesc(TEST_EMAIL))
-                .thenReturn(viewHistoryList);
+        // The new view is still queued for writing, so the database does not return it yet
+        when(articleViewHistoryRepository.findRecentDistinctArticleIds(eq(TEST_USER_ID), any(LocalDateTime.class), eq(Limit.of(2))))
+                .thenReturn(List.of("67890", TEST_ARTICLE_ID));
+        articleViewHistoryService.saveArticleView(TEST_USER_ID, "11111", "New Article");
 
         // Act
-        List<String> result = articleViewHistoryService.getUserViewedArticleIds(TEST_EMAIL, 1);
+        List<String> result = articleViewHistoryService.getUserViewedArticleIds(TEST_USER_ID, 2);
 
         // Assert
-        assertEquals(1, result.size());
-        assertEquals("67890", result.get(0)); // Only the most recent
+        assertEquals(List.of("11111", "67890"), result);
+        articleViewHistoryService.saveArticleView(TEST_USER_ID, TEST_ARTICLE_ID, TEST_TITLE);
+        assertEquals(List.of(TEST_ARTICLE_ID, "11111"), articleViewHistoryService.getUserViewedArticleIds(TEST_USER_ID, 2));
     }
 }
@@ -0,0 +1,161 @@
+package com.escom.papelio.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class HistoryPartitionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path archiveDirectory;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2025-06-15T10:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void shouldNamePartitionsByMonth() {
+        assertEquals("search_history_y2025m03", HistoryPartitionService.partitionName("search_history", YearMonth.of(2025, 3)));
+        assertEquals(Optional.of(YearMonth.of(2024, 12)), HistoryPartitionService.partitionMonth("article_view_history_y2024m12"));
+        assertEquals(Optional.empty(), HistoryPartitionService.partitionMonth("article_view_history_default"));
+    }
+
+    @Test
+    void shouldCreateUpcomingPartitionsAndDropExpiredOnes() {
+        // Arrange
+        HistoryPartitionService service = new HistoryPartitionService(jdbcTemplate, transactionManager,
+                12, 1, false, archiveDirectory, clock);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("search_history")))
+                .thenReturn(List.of("search_history_default", "search_history_y2024m06", "search_history_y2024m07"));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("article_view_history")))
+                .thenReturn(List.of());
+
+        // Act
+        service.maintainPartitions();
+
+        // Assert
+        verify(jdbcTemplate, never()).execute(startsWith("CREATE TABLE search_history_y2024m07"));
+        verify(jdbcTemplate).execute("CREATE TABLE search_history_y2025m06 (LIKE search_history INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        verify(jdbcTemplate).execute("ALTER TABLE search_history ATTACH PARTITION search_history_y2025m06 " +
+                "FOR VALUES FROM ('2025-06-01') TO ('2025-07-01')");
+        verify(jdbcTemplate).execute("ALTER TABLE search_history ATTACH PARTITION search_history_y2025m07 " +
+                "FOR VALUES FROM ('2025-07-01') TO ('2025-08-01')");
+        verify(jdbcTemplate).execute("ALTER TABLE article_view_history ATTACH PARTITION article_view_history_y2025m06 " +
+                "FOR VALUES FROM ('2025-06-01') TO ('2025-07-01')");
+
+        // June 2024 is outside the last 12 months, July 2024 is the oldest month kept
+        verify(jdbcTemplate).execute("ALTER TABLE search_history DETACH PARTITION search_history_y2024m06");
+        verify(jdbcTemplate).execute("DROP TABLE search_history_y2024m06");
+        verify(jdbcTemplate, never()).execute("DROP TABLE search_history_y2024m07");
+        verify(jdbcTemplate, never()).execute("DROP TABLE search_history_default");
+    }
+
+    @Test
+    void shouldMoveDefaultPartitionRowsBeforeAttachingNewPartition() {
+        // Arrange
+        HistoryPartitionService service = new HistoryPartitionService(jdbcTemplate, transactionManager,
+                12, 0, false, archiveDirectory, clock);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), anyString())).thenReturn(List.of());
+
+        // Act
+        service.maintainPartitions();
+
+        // Assert
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute(startsWith("CREATE TABLE search_history_y2025m06 "));
+        inOrder.verify(jdbcTemplate).update(
+                "WITH moved AS (DELETE FROM search_history_default WHERE search_date >= ? AND search_date < ? RETURNING *) " +
+                "INSERT INTO search_history_y2025m06 SELECT * FROM moved",
+                LocalDateTime.of(2025, 6, 1, 0, 0), LocalDateTime.of(2025, 7, 1, 0, 0));
+        inOrder.verify(jdbcTemplate).execute(startsWith("ALTER TABLE search_history ATTACH PARTITION search_history_y2025m06 "));
+    }
+
+    @Test
+    void shouldDeleteExpiredRowsFromDefaultPartition() {
+        // Arrange
+        HistoryPartitionService service = new HistoryPartitionService(jdbcTemplate, transactionManager,
+                12, 0, false, archiveDirectory, clock);
+        LocalDateTime cutoff = LocalDateTime.of(2024, 7, 1, 0, 0);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), anyString()))
+                .thenReturn(List.of("search_history_y2025m06", "article_view_history_y2025m06"));
+        when(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM article_view_history_default WHERE view_date < ?)",
+                Boolean.class, cutoff)).thenReturn(true);
+        when(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM search_history_default WHERE search_date < ?)",
+                Boolean.class, cutoff)).thenReturn(false);
+
+        // Act
+        service.maintainPartitions();
+
+        // Assert
+        verify(jdbcTemplate).update("DELETE FROM article_view_history_default WHERE view_date < ?", cutoff);
+        verify(jdbcTemplate, never()).update(startsWith("DELETE FROM search_history_default"), any(Object[].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldArchivePartitionToGzippedCsv() throws Exception {
+        // Arrange
+        HistoryPartitionService service = new HistoryPartitionService(jdbcTemplate, transactionManager,
+                12, 1, true, archiveDirectory, clock);
+        ResultSet resultSet = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(2);
+        when(metaData.getColumnName(1)).thenReturn("id");
+        when(metaData.getColumnName(2)).thenReturn("search_query");
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getString(1)).thenReturn("1");
+        when(resultSet.getString(2)).thenReturn("say \"hi\", please");
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(ResultSetExtractor.class)))
+                .thenAnswer(invocation -> invocation.<ResultSetExtractor<Void>>getArgument(1).extractData(resultSet));
+
+        // Act
+        Path file = service.archivePartition("search_history_y2024m06");
+
+        // Assert
+        assertEquals(archiveDirectory.resolve("search_history_y2024m06.csv.gz"), file);
+        assertEquals("\"id\",\"search_query\"\n\"1\",\"say \"\"hi\"\", please\"\n", gunzip(file));
+        assertFalse(Files.exists(archiveDirectory.resolve("search_history_y2024m06.csv.gz.partial")));
+    }
+
+    private String gunzip(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            in.transferTo(out);
+            return out.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
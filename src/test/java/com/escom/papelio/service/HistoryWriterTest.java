@@ -0,0 +1,160 @@
+package com.escom.papelio.service;
+
+import com.escom.papelio.model.ArticleViewHistory;
+import com.escom.papelio.model.SearchHistory;
+import com.escom.papelio.repository.ArticleViewHistoryRepository;
+import com.escom.papelio.repository.SearchHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class HistoryWriterTest {
+
+    @Mock
+    private SearchHistoryRepository searchHistoryRepository;
+
+    @Mock
+    private ArticleViewHistoryRepository articleViewHistoryRepository;
+
+    @Mock
+    private PopularityCounterService popularityCounterService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private HistoryWriter historyWriter;
+
+    @BeforeEach
+    void setUp() {
+        historyWriter = new HistoryWriter(searchHistoryRepository, articleViewHistoryRepository, popularityCounterService,
+                transactionManager, true,
+                100, 10, Duration.ofMillis(50), Duration.ofMillis(10), Duration.ofSeconds(5));
+    }
+
+    @Test
+    void shouldFlushQueuedEntriesOnShutdown() throws InterruptedException {
+        // Arrange
+        historyWriter.start();
+
+        // Act
+        for (int i = 0; i < 25; i++) {
+            historyWriter.enqueue(searchHistory("query " + i));
+        }
+        historyWriter.enqueue(articleView("12345"));
+        historyWriter.stop();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SearchHistory>> searchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(searchHistoryRepository, atLeastOnce()).saveAll(searchCaptor.capture());
+        List<SearchHistory> saved = new ArrayList<>();
+        searchCaptor.getAllValues().forEach(batch -> {
+            assertTrue(batch.size() <= 10);
+            saved.addAll(batch);
+        });
+        assertEquals(25, saved.size());
+        assertEquals("query 0", saved.get(0).getSearchQuery());
+        verify(articleViewHistoryRepository).saveAll(List.of(articleView("12345")));
+        verify(popularityCounterService).recordViews(List.of(articleView("12345")));
+    }
+
+    @Test
+    void shouldWriteSynchronouslyWhenNotRunning() {
+        // Act
+        SearchHistory history = searchHistory("machine learning");
+        historyWriter.enqueue(history);
+
+        // Assert
+        verify(searchHistoryRepository).saveAll(List.of(history));
+        verify(articleViewHistoryRepository, never()).saveAll(anyList());
+        verify(popularityCounterService).recordSearches(List.of(history));
+    }
+
+    @Test
+    void shouldSurviveFailedBatch() throws InterruptedException {
+        // Arrange
+        when(searchHistoryRepository.saveAll(anyList()))
+                .thenThrow(new RuntimeException("Database unavailable"))
+                .thenReturn(List.of());
+        historyWriter.start();
+
+        // Act
+        historyWriter.enqueue(searchHistory("first"));
+        verify(searchHistoryRepository, timeout(1000)).saveAll(anyList());
+        historyWriter.enqueue(searchHistory("second"));
+        historyWriter.stop();
+
+        // Assert
+        verify(searchHistoryRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void shouldRetryFailedBatchOneByOneAndDropOnlyBadEntries() {
+        // Arrange
+        when(searchHistoryRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<SearchHistory> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(history -> history.getSearchQuery().length() > 255)) {
+                throw new RuntimeException("value too long for type character varying(255)");
+            }
+            return batch;
+        });
+        SearchHistory first = searchHistory("first");
+        SearchHistory bad = searchHistory("x".repeat(300));
+        bad.setId(7L);
+        SearchHistory last = searchHistory("last");
+
+        // Act
+        historyWriter.flush(List.of(first, bad, last));
+
+        // Assert
+        verify(searchHistoryRepository).saveAll(List.of(first));
+        verify(searchHistoryRepository).saveAll(List.of(last));
+        verify(popularityCounterService).recordSearches(List.of(first));
+        verify(popularityCounterService).recordSearches(List.of(last));
+        assertEquals(1, historyWriter.getDroppedEventCount());
+    }
+
+    @Test
+    void shouldWriteSynchronouslyWhenDisabled() {
+        // Arrange
+        HistoryWriter disabled = new HistoryWriter(searchHistoryRepository, articleViewHistoryRepository,
+                popularityCounterService, transactionManager, false,
+                100, 10, Duration.ofMillis(50), Duration.ofMillis(10), Duration.ofSeconds(5));
+        disabled.start();
+
+        // Act
+        ArticleViewHistory view = articleView("12345");
+        disabled.enqueue(view);
+
+        // Assert
+        verify(articleViewHistoryRepository).saveAll(List.of(view));
+    }
+
+    private SearchHistory searchHistory(String query) {
+        SearchHistory history = new SearchHistory();
+        history.setUserId(1L);
+        history.setSearchQuery(query);
+        return history;
+    }
+
+    private ArticleViewHistory articleView(String articleId) {
+        ArticleViewHistory history = new ArticleViewHistory();
+        history.setUserId(1L);
+        history.setArticleId(articleId);
+        return history;
+    }
+}
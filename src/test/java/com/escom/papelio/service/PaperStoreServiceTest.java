@@ -0,0 +1,104 @@
+package com.escom.papelio.service;
+
+import com.escom.papelio.dto.ArticleDTO;
+import com.escom.papelio.model.StoredPaper;
+import com.escom.papelio.repository.StoredPaperRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PaperStoreServiceTest {
+
+    @Mock
+    private StoredPaperRepository storedPaperRepository;
+
+    private PaperStoreService paperStoreService;
+
+    private final String TEST_PAPER_ID = "paper123";
+
+    @BeforeEach
+    void setUp() {
+        paperStoreService = new PaperStoreService(storedPaperRepository, Duration.ofDays(7));
+    }
+
+    @Test
+    void findFreshShouldOnlyAcceptPapersWithinFreshnessWindow() {
+        // Arrange
+        ArgumentCaptor<LocalDateTime> cutoffCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(storedPaperRepository.findByIdAndFetchedAtAfter(eq(TEST_PAPER_ID), cutoffCaptor.capture()))
+                .thenReturn(Optional.of(storedPaper()));
+
+        // Act
+        Optional<ArticleDTO> result = paperStoreService.findFresh(TEST_PAPER_ID);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("Stored Paper", result.get().getTitle());
+        assertEquals("Stored abstract", result.get().getAbstract_());
+        LocalDateTime expectedCutoff = LocalDateTime.now().minusDays(7);
+        assertTrue(Duration.between(cutoffCaptor.getValue(), expectedCutoff).abs().toSeconds() < 5);
+    }
+
+    @Test
+    void findFreshShouldTreatStorageErrorsAsMiss() {
+        // Arrange
+        when(storedPaperRepository.findByIdAndFetchedAtAfter(eq(TEST_PAPER_ID), any()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        // Act
+        Optional<ArticleDTO> result = paperStoreService.findFresh(TEST_PAPER_ID);
+
+        // Assert
+        assertFalse(result.isPresent());
+    }
+
+    @Test
+    void saveShouldStoreArticleWithFetchTime() {
+        // Arrange
+        ArticleDTO article = new ArticleDTO();
+        article.setId(TEST_PAPER_ID);
+        article.setTitle("Fetched Paper");
+        article.setAuthors(List.of("Author One"));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<StoredPaper>> papersCaptor = ArgumentCaptor.forClass(Collection.class);
+
+        // Act
+        paperStoreService.save(article);
+
+        // Assert
+        verify(storedPaperRepository).upsertAll(papersCaptor.capture());
+        StoredPaper paper = papersCaptor.getValue().iterator().next();
+        assertEquals(TEST_PAPER_ID, paper.getId());
+        assertEquals("Fetched Paper", paper.getTitle());
+        assertEquals(List.of("Author One"), paper.getAuthors());
+        assertNotNull(paper.getFetchedAt());
+        verify(storedPaperRepository, never()).save(any());
+    }
+
+    private StoredPaper storedPaper() {
+        StoredPaper paper = new StoredPaper();
+        paper.setId(TEST_PAPER_ID);
+        paper.setTitle("Stored Paper");
+        paper.setAbstractText("Stored abstract");
+        paper.setFetchedAt(LocalDateTime.now().minusDays(1));
+        return paper;
+    }
+}
@@ -0,0 +1,113 @@
+package com.escom.papelio.service;
+
+import com.escom.papelio.model.ArticleViewHistory;
+import com.escom.papelio.model.SearchHistory;
+import com.escom.papelio.repository.ArticleViewCountRepository;
+import com.escom.papelio.repository.SearchQueryCountRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PopularityCounterServiceTest {
+
+    @Mock
+    private ArticleViewCountRepository articleViewCountRepository;
+
+    @Mock
+    private SearchQueryCountRepository searchQueryCountRepository;
+
+    @InjectMocks
+    private PopularityCounterService popularityCounterService;
+
+    private final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Test
+    void shouldUpsertOncePerArticleWithLatestTitle() {
+        // Arrange
+        List<ArticleViewHistory> views = Arrays.asList(
+                view("12345", "Old Title", NOW.minusHours(1)),
+                view("67890", "Another Article", NOW),
+                view("12345", "New Title", NOW)
+        );
+
+        // Act
+        popularityCounterService.recordViews(views);
+
+        // Assert
+        verify(articleViewCountRepository).increment("12345", "New Title", 2L, NOW);
+        verify(articleViewCountRepository).increment("67890", "Another Article", 1L, NOW);
+        verifyNoMoreInteractions(articleViewCountRepository);
+    }
+
+    @Test
+    void shouldUpsertOncePerQuery() {
+        // Arrange
+        List<SearchHistory> searches = Arrays.asList(
+                search("machine learning", NOW.minusMinutes(5)),
+                search("machine learning", NOW),
+                search("deep learning", NOW.minusMinutes(1))
+        );
+
+        // Act
+        popularityCounterService.recordSearches(searches);
+
+        // Assert
+        verify(searchQueryCountRepository).increment("machine learning", 2L, NOW);
+        verify(searchQueryCountRepository).increment("deep learning", 1L, NOW.minusMinutes(1));
+        verifyNoMoreInteractions(searchQueryCountRepository);
+    }
+
+    @Test
+    void shouldReadMostViewedArticlesFromCounters() {
+        // Arrange
+        List<Object[]> rows = List.<Object[]>of(new Object[]{"Test Article", "12345", 10L});
+        when(articleViewCountRepository.findMostViewedArticles()).thenReturn(rows);
+
+        // Act
+        List<Object[]> result = popularityCounterService.getMostViewedArticles();
+
+        // Assert
+        assertEquals(rows, result);
+    }
+
+    @Test
+    void shouldRebuildOnlyEmptyCounters() {
+        // Arrange
+        when(articleViewCountRepository.count()).thenReturn(0L);
+        when(searchQueryCountRepository.count()).thenReturn(5L);
+
+        // Act
+        popularityCounterService.rebuildIfEmpty();
+
+        // Assert
+        verify(articleViewCountRepository).rebuildFromHistory();
+        verify(searchQueryCountRepository, never()).rebuildFromHistory();
+    }
+
+    private ArticleViewHistory view(String articleId, String title, LocalDateTime viewDate) {
+        ArticleViewHistory history = new ArticleViewHistory();
+        history.setUserId(1L);
+        history.setArticleId(articleId);
+        history.setTitle(title);
+        history.setViewDate(viewDate);
+        return history;
+    }
+
+    private SearchHistory search(String query, LocalDateTime searchDate) {
+        SearchHistory history = new SearchHistory();
+        history.setUserId(1L);
+        history.setSearchQuery(query);
+        history.setSearchDate(searchDate);
+        return history;
+    }
+}
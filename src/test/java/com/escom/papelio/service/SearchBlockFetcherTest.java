@@ -0,0 +1,111 @@
+package com.escom.papelio.service;
+
+import com.escom.papelio.client.SemanticScholarApiClient;
+import com.escom.papelio.dto.ArticleDTO;
+import com.escom.papelio.dto.SearchBlockDTO;
+import com.escom.papelio.dto.SearchProjection;
+import com.escom.papelio.mapper.SemanticScholarMapper;
+import com.escom.papelio.model.SemanticScholarPaper;
+import com.escom.papelio.model.SemanticScholarResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class SearchBlockFetcherTest {
+
+    @Mock
+    private SemanticScholarApiClient apiClient;
+
+    @Mock
+    private SemanticScholarMapper mapper;
+
+    @InjectMocks
+    private SearchBlockFetcher blockFetcher;
+
+    private static final String TARGET_FIELDS = "title,abstract,authors,venue,year,citationCount,url,externalIds";
+    private static final String SUMMARY_FIELDS = "title,authors,venue,year,citationCount,url,externalIds";
+
+    @Test
+    void fetchBlockShouldRequestOneAlignedBlock() {
+        // Arrange
+        SemanticScholarPaper paper = new SemanticScholarPaper();
+        SemanticScholarResponse response = new SemanticScholarResponse();
+        response.setTotal(75L);
+        response.setData(List.of(paper));
+        when(apiClient.searchPapers("machine learning", 50, 50, TARGET_FIELDS)).thenReturn(response);
+        when(mapper.mapToArticleDTO(paper)).thenReturn(new ArticleDTO());
+
+        // Act
+        SearchBlockDTO block = blockFetcher.fetchBlock("machine learning", 50, SearchProjection.FULL);
+
+        // Assert
+        assertEquals(50, block.getOffset());
+        assertEquals(1, block.getArticles().size());
+        assertEquals(75, block.getTotalResults());
+    }
+
+    @Test
+    void fetchBlockShouldLeaveOutAbstractsForSummaryProjection() {
+        // Arrange
+        SemanticScholarResponse response = new SemanticScholarResponse();
+        response.setTotal(0L);
+        when(apiClient.searchPapers("machine learning", 0, 50, SUMMARY_FIELDS)).thenReturn(response);
+
+        // Act
+        SearchBlockDTO block = blockFetcher.fetchBlock("machine learning", 0, SearchProjection.SUMMARY);
+
+        // Assert
+        assertTrue(block.getArticles().isEmpty());
+    }
+
+    @Test
+    void fetchBlockShouldNotRequestBeyondApiLimit() {
+        // Arrange
+        when(apiClient.searchPapers("machine learning", 980, 20, TARGET_FIELDS)).thenReturn(null);
+
+        // Act
+        SearchBlockDTO block = blockFetcher.fetchBlock("machine learning", 980, SearchProjection.FULL);
+
+        // Assert
+        assertTrue(block.getArticles().isEmpty());
+    }
+
+    @Test
+    void refreshBlockShouldParseCacheKeyWithUnderscores() {
+        // Arrange
+        SemanticScholarPaper paper = new SemanticScholarPaper();
+        SemanticScholarResponse response = new SemanticScholarResponse();
+        response.setTotal(1L);
+        response.setData(List.of(paper));
+        when(apiClient.searchPapersAsync("deep_learning", 100, 50, SUMMARY_FIELDS)).thenReturn(Mono.just(response));
+        when(mapper.mapToArticleDTO(paper)).thenReturn(new ArticleDTO());
+
+        // Act
+        SearchBlockDTO block = blockFetcher.refreshBlock("SUMMARY_100_deep_learning").join();
+
+        // Assert
+        assertEquals("deep_learning", block.getQuery());
+        assertEquals(100, block.getOffset());
+    }
+
+    @Test
+    void refreshBlockShouldFailInsteadOfReturningEmptyBlock() {
+        // Arrange
+        when(apiClient.searchPapersAsync(anyString(), anyInt(), anyInt(), anyString()))
+                .thenReturn(Mono.error(new RuntimeException("API call failed")));
+
+        // Act & Assert
+        assertThrows(CompletionException.class, () -> blockFetcher.refreshBlock("FULL_0_machine learning").join());
+    }
+}
@@ -1,7 +1,10 @@
 package com.escom.papelio.service;
 
+import com.escom.papelio.dto.HistoryPageDTO;
+import com.escom.papelio.dto.SearchHistoryEntryDTO;
 import com.escom.papelio.model.SearchHistory;
 import com.escom.papelio.repository.SearchHistoryRepository;
+import com.escom.papelio.util.HistoryCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,6 +13,7 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -17,7 +21,11 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,13 +34,22 @@ public class SearchHistoryServiceTest {
     @Mock
     private SearchHistoryRepository searchHistoryRepository;
 
+    @Mock
+    private HistoryWriter historyWriter;
+
+    @Mock
+    private PopularityCounterService popularityCounterService;
+
+    @Mock
+    private TrendingService trendingService;
+
     @InjectMocks
     private SearchHistoryService searchHistoryService;
 
     @Captor
     private ArgumentCaptor<SearchHistory> searchHistoryCaptor;
 
-    private final String TEST_EMAIL = "test@example.com";
+    private final Long TEST_USER_ID = 1L;
     private final String TEST_QUERY = "machine learning";
 
     @BeforeEach
@@ -43,42 +60,98 @@ public class SearchHistoryServiceTest {
     @Test
     void shouldSaveSearchQuerySuccessfully() {
         // Act
-        searchHistoryService.saveSearchQuery(TEST_EMAIL, TEST_QUERY);
+        searchHistoryService.saveSearchQuery(TEST_USER_ID, TEST_QUERY);
 
         // Assert
-        verify(searchHistoryRepository).save(searchHistoryCaptor.capture());
+        verify(historyWriter).enqueue(searchHistoryCaptor.capture());
+        verify(trendingService).recordSearch(eq(TEST_QUERY), any(LocalDateTime.class));
+        verify(searchHistoryRepository, never()).save(any());
         SearchHistory savedHistory = searchHistoryCaptor.getValue();
 
-        assertEquals(TEST_EMAIL, savedHistory.getUserEmail());
+        assertEquals(TEST_USER_ID, savedHistory.getUserId());
         assertEquals(TEST_QUERY, savedHistory.getSearchQuery());
         assertNotNull(savedHistory.getSearchDate());
     }
 
     @Test
-    void shouldRetrieveUserSearchHistory() {
+    void shouldSaveSearchQueriesInBulk() {
         // Arrange
         SearchHistory history1 = new SearchHistory();
-        history1.setUserEmail(TEST_EMAIL);
-        history1.setSearchQuery("artificial intelligence");
-        history1.setSearchDate(LocalDateTime.now().minusDays(1));
-
+        history1.setUserId(TEST_USER_ID);
+        history1.setSearchQuery(TEST_QUERY);
         SearchHistory history2 = new SearchHistory();
-        history2.setUserEmail(TEST_EMAIL);
+        history2.setUserId(TEST_USER_ID);
         history2.setSearchQuery("neural networks");
-        history2.setSearchDate(LocalDateTime.now().minusHours(2));
+        List<SearchHistory> entries = Arrays.asList(history1, history2);
+        when(searchHistoryRepository.saveAll(entries)).thenReturn(entries);
 
-        List<SearchHistory> expectedHistory = Arrays.asList(history2, history1);
+        // Act
+        List<SearchHistory> result = searchHistoryService.saveSearchQueries(entries);
 
-        when(searchHistoryRepository.findByUserEmailOrderBySearchDateDesc(TEST_EMAIL))
-                .thenReturn(expectedHistory);
+        // Assert
+        assertEquals(2, result.size());
+        verify(searchHistoryRepository).saveAll(entries);
+        verify(popularityCounterService).recordSearches(entries);
+        verify(historyWriter, never()).enqueue(any(SearchHistory.class));
+    }
+
+    @Test
+    void shouldReturnFirstPageWithCursorWhenMoreEntriesExist() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        List<SearchHistoryEntryDTO> rows = Arrays.asList(
+                new SearchHistoryEntryDTO(3L, "neural networks", now),
+                new SearchHistoryEntryDTO(2L, "artificial intelligence", now.minusHours(1)),
+                new SearchHistoryEntryDTO(1L, TEST_QUERY, now.minusHours(2))
+        );
+        when(searchHistoryRepository.findPage(TEST_USER_ID, Limit.of(3))).thenReturn(rows);
 
         // Act
-        List<SearchHistory> result = searchHistoryService.getUserSearchHistory(TEST_EMAIL);
+        HistoryPageDTO<SearchHistoryEntryDTO> result = searchHistoryService.getSearchHistoryPage(TEST_USER_ID, null, 2);
 
         // Assert
-        assertEquals(2, result.size());
-        assertEquals(expectedHistory, result);
-        verify(searchHistoryRepository).findByUserEmailOrderBySearchDateDesc(TEST_EMAIL);
+        assertEquals(2, result.getItems().size());
+        assertEquals("neural networks", result.getItems().get(0).getSearchQuery());
+        HistoryCursor cursor = HistoryCursor.decode(result.getNextCursor());
+        assertEquals(now.minusHours(1), cursor.date());
+        assertEquals(2L, cursor.id());
+    }
+
+    @Test
+    void shouldContinueAfterCursorAndEndOnLastPage() {
+        // Arrange
+        LocalDateTime date = LocalDateTime.of(2025, 1, 1, 11, 0);
+        String cursor = new HistoryCursor(date, 2L).encode();
+        List<SearchHistoryEntryDTO> rows = List.of(new SearchHistoryEntryDTO(1L, TEST_QUERY, date.minusHours(1)));
+        when(searchHistoryRepository.findPageAfter(TEST_USER_ID, date, 2L, Limit.of(3))).thenReturn(rows);
+
+        // Act
+        HistoryPageDTO<SearchHistoryEntryDTO> result = searchHistoryService.getSearchHistoryPage(TEST_USER_ID, cursor, 2);
+
+        // Assert
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void shouldCapPageSize() {
+        // Arrange
+        when(searchHistoryRepository.findPage(TEST_USER_ID, Limit.of(SearchHistoryService.MAX_PAGE_SIZE + 1)))
+                .thenReturn(List.of());
+
+        // Act
+        HistoryPageDTO<SearchHistoryEntryDTO> result = searchHistoryService.getSearchHistoryPage(TEST_USER_ID, null, 10_000);
+
+        // Assert
+        assertTrue(result.getItems().isEmpty());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void shouldRejectInvalidCursor() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> searchHistoryService.getSearchHistoryPage(TEST_USER_ID, "not-a-cursor", 20));
     }
 
     @Test
@@ -88,7 +161,7 @@ public class SearchHistoryServiceTest {
         Object[] query2 = new Object[]{"deep learning", 7L};
         List<Object[]> expectedTopQueries = Arrays.asList(query1, query2);
 
-        when(searchHistoryRepository.findTopSearchQueries()).thenReturn(expectedTopQueries);
+        when(popularityCounterService.getTopSearchQueries()).thenReturn(expectedTopQueries);
 
         // Act
         List<Object[]> result = searchHistoryService.getTopSearchQueries();
@@ -96,6 +169,6 @@ public class SearchHistoryServiceTest {
         // Assert
         assertEquals(2, result.size());
         assertEquals(expectedTopQueries, result);
-        verify(searchHistoryRepository).findTopSearchQueries();
+        verify(popularityCounterService).getTopSearchQueries();
     }
 }
@@ -12,14 +12,18 @@ import com.escom.papelio.model.SemanticScholarRecommendedPapers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -34,9 +38,13 @@ public class SemanticScholarServiceTest {
     @Mock
     private SemanticScholarMapper mapper;
 
-    @InjectMocks
+    @Mock
+    private PaperStoreService paperStore;
+
     private SemanticScholarService service;
 
+    private ConcurrentMapCacheManager cacheManager;
+
     private SearchRequestDTO searchRequest;
     private SemanticScholarPaper mockPaper1;
     private SemanticScholarPaper mockPaper2;
@@ -51,6 +59,10 @@ public class SemanticScholarServiceTest {
 
     @BeforeEach
     void setUp() {
+        cacheManager = new ConcurrentMapCacheManager("articleDetails");
+        // Blocks are fetched through a real fetcher so the tests cover slicing against the API client
+        service = new SemanticScholarService(apiClient, mapper, paperStore, new SearchBlockFetcher(apiClient, mapper), cacheManager);
+
         // Setup test data
         searchRequest = new SearchRequestDTO();
         searchRequest.setQuery(TEST_QUERY);
@@ -84,7 +96,7 @@ public class SemanticScholarServiceTest {
     @Test
     void searchArticles_Success() {
         // Arrange
-        when(apiClient.searchPapers(eq(TEST_QUERY), eq(0), eq(100), eq(TARGET_FIELDS)))
+        when(apiClient.searchPapers(eq(TEST_QUERY), eq(0), eq(50), eq(TARGET_FIELDS)))
                 .thenReturn(mockResponse);
         when(mapper.mapToArticleDTO(mockPaper1)).thenReturn(mockArticleDTO1);
         when(mapper.mapToArticleDTO(mockPaper2)).thenReturn(mockArticleDTO2);
@@ -101,14 +113,14 @@ public class SemanticScholarServiceTest {
         assertEquals(TEST_QUERY, result.getQuery());
 
         // Verify the API was called with correct parameters
-        verify(apiClient).searchPapers(eq(TEST_QUERY), eq(0), eq(100), eq(TARGET_FIELDS));
+        verify(apiClient).searchPapers(eq(TEST_QUERY), eq(0), eq(50), eq(TARGET_FIELDS));
         verify(mapper, times(2)).mapToArticleDTO(any(SemanticScholarPaper.class));
     }
 
     @Test
     void searchArticles_ApiReturnsNull() {
         // Arrange
-        when(apiClient.searchPapers(eq(TEST_QUERY), eq(0), eq(100), eq(TARGET_FIELDS)))
+        when(apiClient.searchPapers(eq(TEST_QUERY), eq(0), eq(50), eq(TARGET_FIELDS)))
                 .thenReturn(null);
 
         // Act
@@ -126,7 +138,7 @@ public class SemanticScholarServiceTest {
     @Test
     void searchArticles_ApiThrowsException() {
         // Arrange
-        when(apiClient.searchPapers(eq(TEST_QUERY), eq(0), eq(100), eq(TARGET_FIELDS)))
+        when(apiClient.searchPapers(eq(TEST_QUERY), eq(0), eq(50), eq(TARGET_FIELDS)))
                 .thenThrow(new RuntimeException("API Error"));
 
         // Act
@@ -158,6 +170,36 @@ public class SemanticScholarServiceTest {
 
         verify(apiClient).getPaperById(eq(TEST_PAPER_ID), eq(DETAILED_FIELDS));
         verify(mapper).mapToArticleDTO(mockPaper1);
+        verify(paperStore).save(mockArticleDTO1);
+    }
+
+    @Test
+    void getArticleById_FreshStoredCopySkipsApi() {
+        // Arrange
+        when(paperStore.findFresh(TEST_PAPER_ID)).thenReturn(Optional.of(mockArticleDTO1));
+
+        // Act
+        Optional<ArticleDTO> result = service.getArticleById(TEST_PAPER_ID);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("paper123", result.get().getId());
+        verifyNoInteractions(apiClient);
+    }
+
+    @Test
+    void getArticleById_ApiErrorFallsBackToStaleStoredCopy() {
+        // Arrange
+        when(apiClient.getPaperById(eq(TEST_PAPER_ID), eq(DETAILED_FIELDS)))
+                .thenThrow(new RuntimeException("API Error"));
+        when(paperStore.find(TEST_PAPER_ID)).thenReturn(Optional.of(mockArticleDTO1));
+
+        // Act
+        Optional<ArticleDTO> result = service.getArticleById(TEST_PAPER_ID);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("paper123", result.get().getId());
     }
 
     @Test
@@ -313,4 +355,278 @@ public class SemanticScholarServiceTest {
         assertEquals(10, result.getArticles().size()); // Should be limited to 10
         assertEquals(10, result.getTotalResults());
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchArticlesAsync_Success() {
+        // Arrange
+        when(apiClient.searchPapersAsync(eq(TEST_QUERY), eq(0), eq(50), eq(TARGET_FIELDS)))
+                .thenReturn(Mono.just(mockResponse));
+        when(mapper.mapToArticleDTO(mockPaper1)).thenReturn(mockArticleDTO1);
+        when(mapper.mapToArticleDTO(mockPaper2)).thenReturn(mockArticleDTO2);
+
+        // Act
+        SearchResponseDTO result = service.searchArticlesAsync(searchRequest).join();
+
+        // Assert
+        assertEquals(2, result.getArticles().size());
+        assertEquals(2, result.getTotalResults());
+        assertEquals(1, result.getTotalPages());
+        assertEquals(TEST_QUERY, result.getQuery());
+        verify(apiClient, never()).searchPapers(anyString(), anyInt(), anyInt(), anyString());
+    }
+
+    @Test
+    void searchArticlesAsync_ApiErrorReturnsEmptyResponse() {
+        // Arrange
+        when(apiClient.searchPapersAsync(eq(TEST_QUERY), eq(0), eq(50), eq(TARGET_FIELDS)))
+                .thenReturn(Mono.error(new RuntimeException("API Error")));
+
+        // Act
+        SearchResponseDTO result = service.searchArticlesAsync(searchRequest).join();
+
+        // Assert
+        assertTrue(result.getArticles().isEmpty());
+        assertEquals(0, result.getTotalResults());
+        assertEquals(TEST_QUERY, result.getQuery());
+    }
+
+    @Test
+    void getArticleByIdAsync_Success() {
+        // Arrange
+        when(apiClient.getPaperByIdAsync(eq(TEST_PAPER_ID), eq(DETAILED_FIELDS)))
+                .thenReturn(Mono.just(mockPaper1));
+        when(mapper.mapToArticleDTO(mockPaper1)).thenReturn(mockArticleDTO1);
+
+        // Act
+        ArticleDTO result = service.getArticleByIdAsync(TEST_PAPER_ID).join();
+
+        // Assert
+        assertNotNull(result);
+        assertEquals("paper123", result.getId());
+        verify(paperStore).save(mockArticleDTO1);
+    }
+
+    @Test
+    void getArticleByIdAsync_FreshStoredCopySkipsApi() {
+        // Arrange
+        when(paperStore.findFresh(TEST_PAPER_ID)).thenReturn(Optional.of(mockArticleDTO1));
+
+        // Act
+        ArticleDTO result = service.getArticleByIdAsync(TEST_PAPER_ID).join();
+
+        // Assert
+        assertEquals("paper123", result.getId());
+        verifyNoInteractions(apiClient);
+    }
+
+    @Test
+    void getArticleByIdAsync_NotFoundCompletesWithNull() {
+        // Arrange
+        when(apiClient.getPaperByIdAsync(eq(TEST_PAPER_ID), eq(DETAILED_FIELDS)))
+                .thenReturn(Mono.empty());
+
+        // Act
+        ArticleDTO result = service.getArticleByIdAsync(TEST_PAPER_ID).join();
+
+        // Assert
+        assertNull(result);
+    }
+
+    @Test
+    void getRecommendationsAsync_Success() {
+        // Arrange
+        List<String> paperIds = Arrays.asList("paper123", "paper456");
+        RecommendationRequestDTO request = new RecommendationRequestDTO();
+        request.setPaperIds(paperIds);
+
+        SemanticScholarRecommendedPapers recommendationResponse = new SemanticScholarRecommendedPapers();
+        recommendationResponse.setRecommendedPapers(Arrays.asList(mockPaper1, mockPaper2));
+
+        when(apiClient.getRecommendationsAsync(eq(paperIds), eq(10), eq(TARGET_FIELDS)))
+                .thenReturn(Mono.just(recommendationResponse));
+        when(mapper.mapToArticleDTO(mockPaper1)).thenReturn(mockArticleDTO1);
+        when(mapper.mapToArticleDTO(mockPaper2)).thenReturn(mockArticleDTO2);
+
+        // Act
+        SearchResponseDTO result = service.getRecommendationsAsync(request).join();
+
+        // Assert
+        assertEquals(2, result.getArticles().size());
+        assertEquals("recommendations", result.getQuery());
+    }
+
+    @Test
+    void searchArticles_ServesRequestedSliceOfBlock() {
+        // Arrange
+        SemanticScholarResponse block = blockResponse(0, 50, 120L);
+        when(apiClient.searchPapers(eq(TEST_QUERY), eq(0), eq(50), eq(TARGET_FIELDS))).thenReturn(block);
+        mapPapersById();
+        searchRequest.setPage(1);
+
+        // Act
+        SearchResponseDTO result = service.searchArticles(searchRequest);
+
+        // Assert
+        assertEquals(10, result.getArticles().size());
+        assertEquals("paper10", result.getArticles().get(0).getId());
+        assertEquals("paper19", result.getArticles().get(9).getId());
+        assertEquals(120, result.getTotalResults());
+        assertEquals(12, result.getTotalPages());
+    }
+
+    @Test
+    void searchArticles_CountsOnlyPagesWithinFetchableRange() {
+        // Arrange
+        when(apiClient.searchPapers(eq(TEST_QUERY), eq(0), eq(50), eq(TARGET_FIELDS))).thenReturn(blockResponse(0, 50, 5000L));
+        mapPapersById();
+
+        // Act
+        SearchResponseDTO result = service.searchArticles(searchRequest);
+
+        // Assert
+        assertEquals(5000, result.getTotalResults());
+        assertEquals(SearchBlockFetcher.MAX_RESULTS / 10, result.getTotalPages());
+    }
+
+    @Test
+    void searchArticles_PageSpanningTwoBlocksFetchesBoth() {
+        // Arrange
+        when(apiClient.searchPapers(eq(TEST_QUERY), eq(0), eq(50), eq(TARGET_FIELDS))).thenReturn(blockResponse(0, 50, 120L));
+        when(apiClient.searchPapers(eq(TEST_QUERY), eq(50), eq(50), eq(TARGET_FIELDS))).thenReturn(blockResponse(50, 50, 120L));
+        mapPapersById();
+        searchRequest.setPage(4);
+        searchRequest.setSize(12);
+
+        // Act
+        SearchResponseDTO result = service.searchArticles(searchRequest);
+
+        // Assert
+        assertEquals(12, result.getArticles().size());
+        assertEquals("paper48", result.getArticles().get(0).getId());
+        assertEquals("paper59", result.getArticles().get(11).getId());
+    }
+
+    @Test
+    void searchArticlesAsync_PageSpanningTwoBlocksFetchesBoth() {
+        // Arrange
+        when(apiClient.searchPapersAsync(eq(TEST_QUERY), eq(0), eq(50), eq(TARGET_FIELDS))).thenReturn(Mono.just(blockResponse(0, 50, 120L)));
+        when(apiClient.searchPapersAsync(eq(TEST_QUERY), eq(50), eq(50), eq(TARGET_FIELDS))).thenReturn(Mono.just(blockResponse(50, 50, 120L)));
+        mapPapersById();
+        searchRequest.setPage(4);
+        searchRequest.setSize(12);
+
+        // Act
+        SearchResponseDTO result = service.searchArticlesAsync(searchRequest).join();
+
+        // Assert
+        assertEquals(12, result.getArticles().size());
+        assertEquals("paper48", result.getArticles().get(0).getId());
+        assertEquals("paper59", result.getArticles().get(11).getId());
+    }
+
+    @Test
+    void searchArticles_PageBeyondApiLimitReturnsEmptyResponse() {
+        // Arrange
+        searchRequest.setPage(100);
+
+        // Act
+        SearchResponseDTO result = service.searchArticles(searchRequest);
+
+        // Assert
+        assertTrue(result.getArticles().isEmpty());
+        verifyNoInteractions(apiClient);
+    }
+
+    @Test
+    void refreshArticle_NotFoundFails() {
+        // Arrange
+        when(apiClient.getPaperByIdAsync(eq(TEST_PAPER_ID), eq(DETAILED_FIELDS)))
+                .thenReturn(Mono.empty());
+
+        // Act & Assert
+        assertThrows(CompletionException.class, () -> service.refreshArticle(TEST_PAPER_ID).join());
+    }
+
+    private SemanticScholarResponse blockResponse(int offset, int count, long total) {
+        List<SemanticScholarPaper> papers = new ArrayList<>();
+        for (int i = offset; i < offset + count; i++) {
+            SemanticScholarPaper paper = new SemanticScholarPaper();
+            paper.setPaperId("paper" + i);
+            papers.add(paper);
+        }
+        SemanticScholarResponse response = new SemanticScholarResponse();
+        response.setTotal(total);
+        response.setData(papers);
+        return response;
+    }
+
+    private void mapPapersById() {
+        when(mapper.mapToArticleDTO(any(SemanticScholarPaper.class))).thenAnswer(invocation -> {
+            ArticleDTO dto = new ArticleDTO();
+            dto.setId(invocation.<SemanticScholarPaper>getArgument(0).getPaperId());
+            return dto;
+        });
+    }
+
+    @Test
+    void getArticlesByIdsAsync_ServesCacheAndStoreHitsAndBatchesMisses() {
+        // Arrange
+        ArticleDTO stored = new ArticleDTO();
+        stored.setId("paper789");
+        cacheManager.getCache("articleDetails").put("paper123", mockArticleDTO1);
+        when(paperStore.findFresh(List.of("paper789", "paper456"))).thenReturn(Map.of("paper789", stored));
+        when(apiClient.getPapersByIdsAsync(eq(List.of("paper456")), eq(TARGET_FIELDS)))
+                .thenReturn(Mono.just(Arrays.asList(mockPaper2)));
+        when(mapper.mapToArticleDTO(mockPaper2)).thenReturn(mockArticleDTO2);
+
+        // Act
+        List<ArticleDTO> result = service.getArticlesByIdsAsync(List.of("paper789", "paper123", "paper456")).join();
+
+        // Assert
+        assertEquals(List.of("paper789", "paper123", "paper456"), result.stream().map(ArticleDTO::getId).toList());
+        verify(paperStore).saveAll(List.of(mockArticleDTO2));
+        assertEquals(mockArticleDTO2, cacheManager.getCache("articleDetails").get("paper456").get());
+    }
+
+    @Test
+    void getArticlesByIdsAsync_AllCachedSkipsApi() {
+        // Arrange
+        cacheManager.getCache("articleDetails").put("paper123", mockArticleDTO1);
+
+        // Act
+        List<ArticleDTO> result = service.getArticlesByIdsAsync(List.of("paper123", "paper123")).join();
+
+        // Assert
+        assertEquals(1, result.size());
+        verifyNoInteractions(apiClient, paperStore);
+    }
+
+    @Test
+    void getArticlesByIdsAsync_SkipsPapersNotFound() {
+        // Arrange
+        when(apiClient.getPapersByIdsAsync(eq(List.of("paper123", "missing")), eq(TARGET_FIELDS)))
+                .thenReturn(Mono.just(Arrays.asList(mockPaper1, null)));
+        when(mapper.mapToArticleDTO(mockPaper1)).thenReturn(mockArticleDTO1);
+
+        // Act
+        List<ArticleDTO> result = service.getArticlesByIdsAsync(List.of("paper123", "missing")).join();
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("paper123", result.get(0).getId());
+    }
+
+    @Test
+    void getArticlesByIdsAsync_ApiErrorFallsBackToStoredCopies() {
+        // Arrange
+        when(apiClient.getPapersByIdsAsync(anyList(), anyString()))
+                .thenReturn(Mono.error(new RuntimeException("API call failed")));
+        when(paperStore.find(List.of("paper123"))).thenReturn(Map.of("paper123", mockArticleDTO1));
+
+        // Act
+        List<ArticleDTO> result = service.getArticlesByIdsAsync(List.of("paper123")).join();
+
+        // Assert
+        assertEquals(1, result.size());
+    }
+}
@@ -1,6 +1,7 @@
 package com.escom.papelio.service;
 
 import com.escom.papelio.dto.RegisterDTO;
+import com.escom.papelio.dto.UserDTO;
 import com.escom.papelio.model.User;
 import com.escom.papelio.repository.UserRepository;
 import com.escom.papelio.service.UserService;
@@ -9,9 +10,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -25,6 +30,9 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Spy
+    private UserAccountCache userAccountCache = new UserAccountCache(100, Duration.ofMinutes(10));
+
     @InjectMocks
     private UserService userService;
 
@@ -64,4 +72,49 @@ public class UserServiceTest {
         
         assertTrue(exception.getMessage().contains("email"));
     }
+
+    @Test
+    void getUserProfileShouldReadRepositoryOnceForRepeatedCalls() {
+        // Arrange
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(existingUser()));
+
+        // Act
+        userService.getUserProfile("test@example.com");
+        UserDTO profile = userService.getUserProfile("test@example.com");
+
+        // Assert
+        assertEquals("testuser", profile.getName());
+        verify(userRepository, times(1)).findByEmail("test@example.com");
+    }
+
+    @Test
+    void updateUserProfileShouldEvictCachedProfile() {
+        // Arrange
+        User user = existingUser();
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        userService.getUserProfile("test@example.com");
+
+        UserDTO update = new UserDTO();
+        update.setEmail("test@example.com");
+        update.setName("renamed");
+
+        // Act
+        userService.updateUserProfile("test@example.com", update);
+        userService.getUserProfile("test@example.com");
+
+        // Assert
+        verify(userAccountCache).invalidate("test@example.com");
+        verify(userRepository, times(3)).findByEmail("test@example.com");
+    }
+
+    private User existingUser() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+        user.setName("testuser");
+        user.setPassword("encodedPassword");
+        user.setRole("ROLE_USER");
+        return user;
+    }
 }
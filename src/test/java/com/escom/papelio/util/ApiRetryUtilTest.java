@@ -0,0 +1,88 @@
+package com.escom.papelio.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApiRetryUtilTest {
+
+    private final ApiRetryUtil apiRetryUtil = new ApiRetryUtil(3, Duration.ofMillis(1), Duration.ofMillis(50));
+
+    @Test
+    void shouldRetryServerErrorsUntilSuccess() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        String result = apiRetryUtil.executeWithRetry(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw error(HttpStatus.SERVICE_UNAVAILABLE, new HttpHeaders());
+            }
+            return "ok";
+        });
+
+        // Assert
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void shouldNotRetryClientErrors() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act & Assert
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> apiRetryUtil.executeWithRetry(() -> {
+            attempts.incrementAndGet();
+            throw error(HttpStatus.NOT_FOUND, new HttpHeaders());
+        }));
+        assertEquals("API call failed", ex.getMessage());
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxRetries() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act & Assert
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> apiRetryUtil.executeWithRetry(() -> {
+            attempts.incrementAndGet();
+            throw error(HttpStatus.TOO_MANY_REQUESTS, new HttpHeaders());
+        }));
+        assertEquals("API call failed after maximum retries", ex.getMessage());
+        assertEquals(4, attempts.get());
+    }
+
+    @Test
+    void shouldHonorRetryAfterHeaderInReactiveRetries() {
+        // Arrange - Retry-After of 1s is capped at the 50ms max delay
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> request = Mono.defer(() -> attempts.incrementAndGet() < 2
+                ? Mono.error(error(HttpStatus.TOO_MANY_REQUESTS, headers))
+                : Mono.just("ok"));
+
+        // Act
+        long start = System.nanoTime();
+        String result = apiRetryUtil.withRetry(request).block();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // Assert
+        assertEquals("ok", result);
+        assertEquals(2, attempts.get());
+        assertTrue(elapsedMillis >= 50, "Retry should wait for the capped Retry-After delay");
+    }
+
+    private static WebClientResponseException error(HttpStatus status, HttpHeaders headers) {
+        return WebClientResponseException.create(status.value(), status.getReasonPhrase(), headers, new byte[0], null);
+    }
+}
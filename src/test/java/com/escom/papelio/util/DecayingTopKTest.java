@@ -0,0 +1,153 @@
+package com.escom.papelio.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DecayingTopKTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+
+    @Test
+    void shouldRankKeysByCount() {
+        // Arrange
+        DecayingTopK<String> topK = new DecayingTopK<>(10, Duration.ofHours(1), clock);
+
+        // Act
+        add(topK, "a", 3);
+        add(topK, "b", 5);
+        add(topK, "c", 1);
+        List<DecayingTopK.Entry<String>> top = topK.top(2);
+
+        // Assert
+        assertEquals(2, top.size());
+        assertEquals("b", top.get(0).key());
+        assertEquals(5.0, top.get(0).score(), 1e-9);
+        assertEquals("a", top.get(1).key());
+    }
+
+    @Test
+    void shouldHalveScoresAfterOneHalfLife() {
+        // Arrange
+        DecayingTopK<String> topK = new DecayingTopK<>(10, Duration.ofHours(1), clock);
+        add(topK, "a", 4);
+
+        // Act
+        clock.advance(Duration.ofHours(1));
+
+        // Assert
+        assertEquals(2.0, topK.top(1).get(0).score(), 1e-9);
+    }
+
+    @Test
+    void shouldRankRecentEventsAboveOlderOnes() {
+        // Arrange
+        DecayingTopK<String> topK = new DecayingTopK<>(10, Duration.ofHours(1), clock);
+        add(topK, "old", 4);
+
+        // Act
+        clock.advance(Duration.ofHours(3));
+        add(topK, "new", 2);
+
+        // Assert
+        assertEquals("new", topK.top(1).get(0).key());
+    }
+
+    @Test
+    void shouldEvictLowestKeyWhenFull() {
+        // Arrange
+        DecayingTopK<String> topK = new DecayingTopK<>(2, Duration.ofHours(1), clock);
+        add(topK, "a", 5);
+        add(topK, "b", 1);
+
+        // Act
+        add(topK, "c", 1);
+        List<DecayingTopK.Entry<String>> top = topK.top(2);
+
+        // Assert
+        assertEquals(2, topK.size());
+        assertEquals("a", top.get(0).key());
+        assertEquals("c", top.get(1).key());
+        assertEquals(2.0, top.get(1).score(), 1e-9); // inherits the evicted count
+    }
+
+    @Test
+    void shouldAlwaysEvictCurrentLowestKey() {
+        // Arrange
+        DecayingTopK<String> topK = new DecayingTopK<>(3, Duration.ofHours(1), clock);
+        add(topK, "a", 4);
+        add(topK, "b", 2);
+        add(topK, "c", 3);
+
+        // Act
+        add(topK, "d", 1); // evicts b (2), d = 3
+        add(topK, "e", 1); // evicts c or d (3), e = 4
+        add(topK, "a", 2); // a = 6
+
+        // Assert
+        List<DecayingTopK.Entry<String>> top = topK.top(3);
+        assertEquals(3, topK.size());
+        assertEquals("a", top.get(0).key());
+        assertEquals(6.0, top.get(0).score(), 1e-9);
+        assertEquals("e", top.get(1).key());
+        assertEquals(4.0, top.get(1).score(), 1e-9);
+        assertEquals(3.0, top.get(2).score(), 1e-9);
+    }
+
+    @Test
+    void shouldKeepScoresFiniteOverLongPeriods() {
+        // Arrange
+        DecayingTopK<String> topK = new DecayingTopK<>(10, Duration.ofMinutes(1), clock);
+        add(topK, "a", 1);
+
+        // Act
+        clock.advance(Duration.ofDays(1));
+        add(topK, "b", 1);
+
+        // Assert
+        List<DecayingTopK.Entry<String>> top = topK.top(2);
+        assertEquals("b", top.get(0).key());
+        assertEquals(1.0, top.get(0).score(), 1e-9);
+        assertTrue(Double.isFinite(top.get(1).score()));
+    }
+
+    private void add(DecayingTopK<String> topK, String key, int times) {
+        for (int i = 0; i < times; i++) {
+            topK.add(key, clock.instant());
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
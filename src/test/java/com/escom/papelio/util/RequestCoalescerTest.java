@@ -0,0 +1,143 @@
+package com.escom.papelio.util;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestCoalescerTest {
+
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer();
+
+    @Test
+    void shouldShareOneCallBetweenConcurrentBlockingCallers() throws Exception {
+        // Arrange
+        int callers = 20;
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        try {
+            // Act
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> requestCoalescer.execute("paper|1", () -> {
+                    upstreamCalls.incrementAndGet();
+                    awaitQuietly(release);
+                    return "paper";
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            // Assert
+            for (Future<String> result : results) {
+                assertEquals("paper", result.get());
+            }
+            assertEquals(1, upstreamCalls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldShareOneCallBetweenConcurrentReactiveSubscribers() {
+        // Arrange
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        Mono<String> call = requestCoalescer.executeAsync("search|ai", () -> Mono.fromCallable(upstreamCalls::incrementAndGet)
+                .delayElement(Duration.ofMillis(100))
+                .map(count -> "result"));
+
+        // Act
+        List<String> results = Mono.zip(call, call, call).map(t -> List.of(t.getT1(), t.getT2(), t.getT3())).block();
+
+        // Assert
+        assertEquals(List.of("result", "result", "result"), results);
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldNotReuseCompletedCalls() {
+        // Arrange
+        AtomicInteger upstreamCalls = new AtomicInteger();
+
+        // Act
+        requestCoalescer.execute("paper|1", upstreamCalls::incrementAndGet);
+        requestCoalescer.execute("paper|1", upstreamCalls::incrementAndGet);
+
+        // Assert
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldPropagateFailureToAllWaiters() {
+        // Arrange
+        Mono<String> call = requestCoalescer.executeAsync("paper|2", () -> Mono.<String>error(new RuntimeException("API call failed"))
+                .delaySubscription(Duration.ofMillis(50)));
+
+        // Act & Assert
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> Mono.zip(call, call).block());
+        assertTrue(ex.getMessage().contains("API call failed"));
+    }
+
+    @Test
+    void shouldReleaseKeyWhenReactiveSupplierThrows() {
+        // Arrange
+        Supplier<Mono<String>> call = () -> {
+            throw new IllegalArgumentException("Not enough variable values available to expand 'bar'");
+        };
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> requestCoalescer.executeAsync("search|foo{bar}", call).block(Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> requestCoalescer.executeAsync("search|foo{bar}", call).block(Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void shouldReleaseWaitersWhenBlockingCallThrowsError() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act
+            Future<String> first = executor.submit(() -> requestCoalescer.execute("paper|3", () -> {
+                awaitQuietly(release);
+                throw new StackOverflowError("upstream");
+            }));
+            Thread.sleep(100);
+            Future<String> second = executor.submit(() -> requestCoalescer.execute("paper|3", () -> "paper"));
+            Thread.sleep(100);
+            release.countDown();
+
+            // Assert
+            ExecutionException firstFailure = assertThrows(ExecutionException.class, () -> first.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, firstFailure.getCause());
+            ExecutionException secondFailure = assertThrows(ExecutionException.class, () -> second.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, secondFailure.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}